@@ -0,0 +1,328 @@
+package src.game;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * The binary maze format, a compact alternative to the text format of the maze files.
+ * A file starts with a header: the magic bytes {@code PMZ}, the format version, the number of rows and columns
+ * and the number of Pacmen, ghosts, keys, boosts and targets, all as big-endian ints after the version byte.
+ * The cells follow row by row as 4-bit codes, two cells per byte with the first cell in the high half. A run of
+ * at least {@link #MIN_RUN} equal cells, typically walls, is written as the run code, the cell code and the
+ * length of the run above the minimum in groups of 3 bits, lowest group first, with the fourth bit set on every
+ * group but the last.
+ */
+public final class BinaryMazeFormat {
+  /**
+   * The version of the format written by this class.
+   */
+  public static final int VERSION = 1;
+  /**
+   * The largest number of cells of a maze in the format, including the wall border added by the loader. A
+   * header may not claim more, as runs let a few bytes stand for any number of cells.
+   */
+  public static final int MAX_CELLS = 1 << 27;
+  static final int MIN_RUN = 4;
+
+  private static final byte[] MAGIC = {'P', 'M', 'Z'};
+  // the characters of the text format by their cell codes
+  private static final String CELLS = "X.SGKBT";
+  private static final int RUN = 0xF;
+  private static final int GROUP_BITS = 3;
+  private static final int MORE_GROUPS = 1 << GROUP_BITS;
+
+  private BinaryMazeFormat() {
+  }
+
+  /**
+   * The header of a binary maze file.
+   */
+  static final class Header {
+    int rows;
+    int cols;
+    // the number of cells of every character of the text format, in the order of CELLS
+    final int[] counts = new int[CELLS.length()];
+
+    /**
+     * Returns the number of cells of the specified character.
+     *
+     * @param cell the character of the text format.
+     * @return the number of cells.
+     */
+    int count(char cell) {
+      return this.counts[CELLS.indexOf(cell)];
+    }
+  }
+
+  /**
+   * Checks if the content starts with the magic bytes of the format.
+   *
+   * @param start the first bytes of a file.
+   * @param length the number of bytes read.
+   * @return true if the content is a binary maze.
+   */
+  static boolean isBinary(byte[] start, int length) {
+    if (length < MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (start[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads the header of a binary maze.
+   *
+   * @param in the stream positioned at the start of the file.
+   * @return the header.
+   * @throws IOException if the stream does not start with a header of a supported version.
+   */
+  static Header readHeader(DataInputStream in) throws IOException {
+    byte[] magic = new byte[MAGIC.length];
+    in.readFully(magic);
+    if (!isBinary(magic, magic.length)) {
+      throw new IOException("Not a binary maze");
+    }
+    int version = in.readUnsignedByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary maze version " + version);
+    }
+    Header header = new Header();
+    header.rows = in.readInt();
+    header.cols = in.readInt();
+    if (header.rows < 0 || header.cols < 0 || (header.rows + 2L) * (header.cols + 2L) > MAX_CELLS) {
+      throw new IOException("Invalid dimensions " + header.rows + "x" + header.cols);
+    }
+    // walls and paths are not counted
+    for (int i = 2; i < CELLS.length(); i++) {
+      header.counts[i] = in.readInt();
+    }
+    return header;
+  }
+
+  /**
+   * Decodes the cells of a binary maze one at a time.
+   */
+  static final class CellReader {
+    private final InputStream in;
+    private int buffered;
+    private boolean hasLow;
+    private char runCell;
+    private int runLeft;
+
+    /**
+     * Constructs a reader of the cells following the header.
+     *
+     * @param in the stream positioned after the header.
+     */
+    CellReader(InputStream in) {
+      this.in = in;
+      this.hasLow = false;
+      this.runLeft = 0;
+    }
+
+    private int nextNibble() throws IOException {
+      if (this.hasLow) {
+        this.hasLow = false;
+        return this.buffered & 0xF;
+      }
+      this.buffered = this.in.read();
+      if (this.buffered < 0) {
+        throw new EOFException("Binary maze ends before its last cell");
+      }
+      this.hasLow = true;
+      return this.buffered >>> 4;
+    }
+
+    private char cellOf(int code) throws IOException {
+      if (code >= CELLS.length()) {
+        throw new IOException("Invalid cell code " + code);
+      }
+      return CELLS.charAt(code);
+    }
+
+    /**
+     * Returns the next cell.
+     *
+     * @return the character of the cell in the text format.
+     * @throws IOException if the cells end or are not valid.
+     */
+    char next() throws IOException {
+      if (this.runLeft > 0) {
+        this.runLeft--;
+        return this.runCell;
+      }
+      int code = nextNibble();
+      if (code != RUN) {
+        return cellOf(code);
+      }
+      this.runCell = cellOf(nextNibble());
+      long length = 0;
+      int shift = 0;
+      int group;
+      do {
+        group = nextNibble();
+        length |= (long) (group & (MORE_GROUPS - 1)) << shift;
+        shift += GROUP_BITS;
+        if (shift > Integer.SIZE) {
+          throw new IOException("Invalid run length");
+        }
+      } while ((group & MORE_GROUPS) != 0);
+      if (length > Integer.MAX_VALUE - MIN_RUN) {
+        throw new IOException("Invalid run length");
+      }
+      // the first cell of the run is returned right away
+      this.runLeft = (int) length + MIN_RUN - 1;
+      return this.runCell;
+    }
+  }
+
+  /**
+   * Collects the 4-bit codes of the cells into bytes.
+   */
+  private static final class CellWriter {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private int high = -1;
+    private int runCode = -1;
+    private int runLength = 0;
+
+    private void nibble(int value) {
+      if (this.high < 0) {
+        this.high = value;
+      } else {
+        this.out.write(this.high << 4 | value);
+        this.high = -1;
+      }
+    }
+
+    void cell(int code) {
+      if (code != this.runCode) {
+        endRun();
+        this.runCode = code;
+      }
+      this.runLength++;
+    }
+
+    private void endRun() {
+      if (this.runLength >= MIN_RUN) {
+        nibble(RUN);
+        nibble(this.runCode);
+        int length = this.runLength - MIN_RUN;
+        do {
+          int group = length & (MORE_GROUPS - 1);
+          length >>>= GROUP_BITS;
+          nibble(length != 0 ? group | MORE_GROUPS : group);
+        } while (length != 0);
+      } else {
+        for (int i = 0; i < this.runLength; i++) {
+          nibble(this.runCode);
+        }
+      }
+      this.runLength = 0;
+    }
+
+    byte[] finish() {
+      endRun();
+      if (this.high >= 0) {
+        nibble(0);
+      }
+      return this.out.toByteArray();
+    }
+  }
+
+  /**
+   * Converts a maze from the text format to the binary format. The text is checked the way the text loader does,
+   * without creating the maze.
+   *
+   * @param text the maze in the text format.
+   * @param out  the stream to write the binary maze to.
+   * @return true if the maze was converted, false if the text is not a valid maze.
+   * @throws IOException if the text cannot be read or the binary maze cannot be written.
+   */
+  public static boolean encode(BufferedReader text, OutputStream out) throws IOException {
+    String dimensionLine = text.readLine();
+    if (dimensionLine == null) {
+      return false;
+    }
+    String[] dimensions = dimensionLine.split(" ");
+    Header header = new Header();
+    try {
+      header.rows = Integer.parseInt(dimensions[0]);
+      header.cols = Integer.parseInt(dimensions[1]);
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      return false;
+    }
+    if (header.rows < 0 || header.cols < 0 || (header.rows + 2L) * (header.cols + 2L) > MAX_CELLS) {
+      return false;
+    }
+    CellWriter cells = new CellWriter();
+    for (int row = 0; row < header.rows; row++) {
+      String line = text.readLine();
+      if (line == null || line.length() != header.cols) {
+        return false;
+      }
+      for (int col = 0; col < header.cols; col++) {
+        int code = CELLS.indexOf(line.charAt(col));
+        if (code < 0) {
+          return false;
+        }
+        header.counts[code]++;
+        cells.cell(code);
+      }
+    }
+    if (header.count('S') > 1 || header.count('T') > 1) {
+      return false;
+    }
+    // other data may follow the maze, as in the replay files, but not another row
+    String trailing = text.readLine();
+    if (trailing != null && trailing.length() == header.cols) {
+      return false;
+    }
+    byte[] body = cells.finish();
+    DataOutputStream data = new DataOutputStream(out);
+    data.write(MAGIC);
+    data.writeByte(VERSION);
+    data.writeInt(header.rows);
+    data.writeInt(header.cols);
+    for (int i = 2; i < CELLS.length(); i++) {
+      data.writeInt(header.counts[i]);
+    }
+    data.write(body);
+    data.flush();
+    return true;
+  }
+
+  /**
+   * Converts a maze from the binary format to the text format.
+   *
+   * @param in   the stream with the binary maze.
+   * @param text the writer to write the maze in the text format to.
+   * @throws IOException if the binary maze is not valid or the text cannot be written.
+   */
+  public static void decode(InputStream in, Writer text) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    Header header = readHeader(data);
+    CellReader cells = new CellReader(data);
+    PrintWriter writer = new PrintWriter(text);
+    writer.println(header.rows + " " + header.cols);
+    char[] line = new char[header.cols];
+    for (int row = 0; row < header.rows; row++) {
+      for (int col = 0; col < header.cols; col++) {
+        line[col] = cells.next();
+      }
+      writer.println(line);
+    }
+    writer.flush();
+  }
+}
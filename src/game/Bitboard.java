@@ -0,0 +1,122 @@
+package src.game;
+
+import java.util.Arrays;
+
+/**
+ * A bitboard view of a maze. Every layer keeps one bit per cell in rows of 64-bit words, so a whole row segment
+ * of 64 cells is tested or combined with a single operation.
+ * The walkable cells are fixed when the view is built. The objects are not kept here, the grid of the maze has
+ * a bit for every type of object on a cell.
+ * The breadth-first search advances the whole frontier one level at a time with shifts and masks, so open areas
+ * are searched a word at a time instead of a cell at a time.
+ */
+class Bitboard {
+  private final int rows;
+  private final int cols;
+  private final int wordsPerRow;
+  private final long[] open;
+  // scratch layers of the breadth-first search
+  private final long[] visited;
+  private long[] frontier;
+  private long[] next;
+
+  /**
+   * Builds the bitboard view of the walkable cells of the maze.
+   *
+   * @param maze the maze to view.
+   */
+  Bitboard(Maze maze) {
+    this.rows = maze.numRows();
+    this.cols = maze.numCols();
+    this.wordsPerRow = (this.cols + Long.SIZE - 1) / Long.SIZE;
+    int words = this.rows * this.wordsPerRow;
+    this.open = new long[words];
+    this.visited = new long[words];
+    this.frontier = new long[words];
+    this.next = new long[words];
+    MazeGrid grid = maze.getGrid();
+    for (int cell = 0; cell < maze.numCells(); cell++) {
+      if (!grid.isPath(cell)) {
+        continue;
+      }
+      this.open[wordOf(cell)] |= bitOf(cell);
+    }
+  }
+
+  private int wordOf(int cell) {
+    return cell / this.cols * this.wordsPerRow + (cell % this.cols) / Long.SIZE;
+  }
+
+  private long bitOf(int cell) {
+    return 1L << (cell % this.cols % Long.SIZE);
+  }
+
+  /**
+   * Computes the walking distance from the source cell to every cell with a breadth-first search that expands
+   * the whole frontier a word at a time. Only the rows around the frontier are visited on every level.
+   *
+   * @param source    the source cell index.
+   * @param distances the array to fill, indexed by cell, -1 for cells that cannot be reached.
+   */
+  void distancesFrom(int source, int[] distances) {
+    Arrays.fill(distances, -1);
+    Arrays.fill(this.visited, 0);
+    int sourceWord = wordOf(source);
+    this.visited[sourceWord] = bitOf(source);
+    this.frontier[sourceWord] = bitOf(source);
+    distances[source] = 0;
+    int top = source / this.cols;
+    int bottom = top;
+    int last = this.wordsPerRow - 1;
+    for (int level = 1; top <= bottom; level++) {
+      int nextTop = this.rows;
+      int nextBottom = -1;
+      int fromRow = Math.max(top - 1, 0);
+      int toRow = Math.min(bottom + 1, this.rows - 1);
+      for (int row = fromRow; row <= toRow; row++) {
+        boolean reached = false;
+        for (int w = 0, i = row * this.wordsPerRow; w <= last; w++, i++) {
+          long cells = this.frontier[i];
+          // neighbors to the right and to the left, carrying the bits over the word boundaries
+          long spread = (cells << 1) | (cells >>> 1);
+          if (w > 0) {
+            spread |= this.frontier[i - 1] >>> (Long.SIZE - 1);
+          }
+          if (w < last) {
+            spread |= this.frontier[i + 1] << (Long.SIZE - 1);
+          }
+          // neighbors above and below
+          if (row > 0) {
+            spread |= this.frontier[i - this.wordsPerRow];
+          }
+          if (row < this.rows - 1) {
+            spread |= this.frontier[i + this.wordsPerRow];
+          }
+          long fresh = spread & this.open[i] & ~this.visited[i];
+          this.next[i] = fresh;
+          if (fresh == 0) {
+            continue;
+          }
+          reached = true;
+          this.visited[i] |= fresh;
+          int base = row * this.cols + w * Long.SIZE;
+          while (fresh != 0) {
+            distances[base + Long.numberOfTrailingZeros(fresh)] = level;
+            fresh &= fresh - 1;
+          }
+        }
+        if (reached) {
+          nextTop = Math.min(nextTop, row);
+          nextBottom = row;
+        }
+      }
+      // the old frontier becomes the empty scratch layer of the next level
+      Arrays.fill(this.frontier, top * this.wordsPerRow, (bottom + 1) * this.wordsPerRow, 0);
+      long[] swap = this.frontier;
+      this.frontier = this.next;
+      this.next = swap;
+      top = nextTop;
+      bottom = nextBottom;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package src.game;
+
+import java.util.Arrays;
+
+/**
+ * Labels the connected regions of walkable cells of a maze.
+ * Two cells are connected if and only if they have the same label, so a destination in another region is known
+ * to be unreachable without searching the whole region of the start.
+ * The labels have to be recomputed whenever the walkability of the maze changes.
+ */
+class ConnectedComponents {
+  static final int NO_COMPONENT = -1;
+
+  private final int[] label;
+  private int count;
+
+  /**
+   * Labels the regions of the maze with a flood fill from every unlabeled walkable cell.
+   *
+   * @param maze the maze to label.
+   */
+  ConnectedComponents(Maze maze) {
+    int cells = maze.numCells();
+    NeighborTable neighbors = maze.getNeighbors();
+    this.label = new int[cells];
+    Arrays.fill(this.label, NO_COMPONENT);
+    this.count = 0;
+    // the searches never reach a labeled cell again, so the distances are filled only once
+    int[] distance = new int[cells];
+    Arrays.fill(distance, -1);
+    int[] queue = new int[cells];
+    for (int seed = 0; seed < cells; seed++) {
+      if (this.label[seed] != NO_COMPONENT || !maze.isWalkable(seed)) {
+        continue;
+      }
+      int component = this.count++;
+      int reached = neighbors.search(seed, distance, queue);
+      for (int i = 0; i < reached; i++) {
+        this.label[queue[i]] = component;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of connected regions.
+   *
+   * @return the number of regions.
+   */
+  int numComponents() {
+    return this.count;
+  }
+
+  /**
+   * Returns the label of the region of the cell.
+   *
+   * @param cell the cell index.
+   * @return the label of the region, or {@link #NO_COMPONENT} for walls.
+   */
+  int componentOf(int cell) {
+    return this.label[cell];
+  }
+
+  /**
+   * Checks if one cell can be reached from another cell.
+   *
+   * @param a the first cell index.
+   * @param b the second cell index.
+   * @return true if both cells are walkable and in the same region, false otherwise.
+   */
+  boolean connected(int a, int b) {
+    return this.label[a] != NO_COMPONENT && this.label[a] == this.label[b];
+  }
+}
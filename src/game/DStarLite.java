@@ -0,0 +1,317 @@
+package src.game;
+
+import src.tool.common.CommonField;
+import src.tool.common.CommonMazeObject;
+
+import java.util.Arrays;
+
+/**
+ * An incremental planner based on D* Lite, used by Pacman to reach a go-to field among moving ghosts.
+ * The search runs backwards from the destination and keeps its state between moves. When Pacman moves or
+ * a ghost enters or leaves a cell, only the part of the search affected by the change is repaired.
+ * Cells occupied by ghosts are either blocked or, optionally, only expensive to enter.
+ * The algorithm is based on the optimized version from: S. Koenig and M. Likhachev, D* Lite, AAAI 2002.
+ */
+class DStarLite {
+  static final int GHOST_COST = 16;
+  private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+  private final Maze maze;
+  private final int cols;
+  private final int[] g;
+  private final int[] rhs;
+  // cost of entering every cell
+  private final int[] cellCost;
+  private final IndexedHeap openList;
+  // ghost cells of the previous move and the scratch list of the current move
+  private int[] ghostCells;
+  private int ghostCount;
+  private int[] nextGhostCells;
+  private boolean ghostsAsHighCost;
+  private int start;
+  private int goal;
+  private int lastStart;
+  private int keyModifier;
+  private int expandedNodes;
+
+  /**
+   * Constructs a planner for the specified maze.
+   *
+   * @param maze the maze to plan in.
+   */
+  DStarLite(Maze maze) {
+    this.maze = maze;
+    this.cols = maze.numCols();
+    int cells = maze.numCells();
+    this.g = new int[cells];
+    this.rhs = new int[cells];
+    this.cellCost = new int[cells];
+    this.openList = new IndexedHeap(cells);
+    this.ghostCells = new int[8];
+    this.nextGhostCells = new int[8];
+    this.ghostCount = 0;
+    this.ghostsAsHighCost = false;
+    this.goal = -1;
+    this.expandedNodes = 0;
+  }
+
+  /**
+   * Sets how the cells occupied by ghosts are treated. Changing it restarts the search on the next move.
+   *
+   * @param ghostsAsHighCost true to make ghost cells expensive to enter, false to block them.
+   */
+  void setGhostsAsHighCost(boolean ghostsAsHighCost) {
+    if (this.ghostsAsHighCost != ghostsAsHighCost) {
+      this.ghostsAsHighCost = ghostsAsHighCost;
+      this.goal = -1;
+    }
+  }
+
+  /**
+   * Returns the number of cells expanded while planning the last move.
+   *
+   * @return the number of expanded cells.
+   */
+  int getExpandedNodes() {
+    return this.expandedNodes;
+  }
+
+  /**
+   * Returns the direction of the next move from one field towards another field.
+   * The search state is reused as long as the destination stays the same.
+   *
+   * @param from the field to move from.
+   * @param to   the destination field.
+   * @return the direction of the next move, or STOP if the destination is reached or not reachable now.
+   */
+  CommonField.Direction nextDirection(CommonField from, CommonField to) {
+    this.expandedNodes = 0;
+    int destination = this.maze.indexOf(to);
+    this.start = this.maze.indexOf(from);
+    if (this.start == destination || !this.maze.isReachable(this.start, destination)) {
+      return CommonField.Direction.STOP;
+    }
+    if (destination != this.goal) {
+      initialize(destination);
+    } else {
+      // Pacman moved, keys already in the open list stay valid lower bounds
+      this.keyModifier += manhattanDistance(this.lastStart, this.start);
+      this.lastStart = this.start;
+      updateGhostCells();
+    }
+    computeShortestPath();
+    if (this.g[this.start] >= INFINITY) {
+      return CommonField.Direction.STOP;
+    }
+    // move to the neighbor with the lowest cost to the destination
+    CommonField.Direction best = CommonField.Direction.STOP;
+    int bestCost = INFINITY;
+    for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+      int neighbor = this.start + direction.deltaRow() * this.cols + direction.deltaCol();
+      int cost = add(cost(neighbor), this.maze.isWalkable(neighbor) ? this.g[neighbor] : INFINITY);
+      if (cost < bestCost) {
+        best = direction;
+        bestCost = cost;
+      }
+    }
+    return best;
+  }
+
+  private int manhattanDistance(int a, int b) {
+    return Math.abs(a / this.cols - b / this.cols) + Math.abs(a % this.cols - b % this.cols);
+  }
+
+  private static int add(int a, int b) {
+    return a >= INFINITY || b >= INFINITY ? INFINITY : a + b;
+  }
+
+  /**
+   * Returns the cost of entering the cell.
+   *
+   * @param cell the cell index.
+   * @return the cost of entering the cell, or infinity for walls and blocked cells.
+   */
+  private int cost(int cell) {
+    return this.maze.isWalkable(cell) ? this.cellCost[cell] : INFINITY;
+  }
+
+  private int ghostCellCost() {
+    return this.ghostsAsHighCost ? GHOST_COST : INFINITY;
+  }
+
+  private void initialize(int destination) {
+    this.goal = destination;
+    this.lastStart = this.start;
+    this.keyModifier = 0;
+    this.openList.clear();
+    Arrays.fill(this.g, INFINITY);
+    Arrays.fill(this.rhs, INFINITY);
+    Arrays.fill(this.cellCost, 1);
+    collectGhostCells();
+    int[] swap = this.ghostCells;
+    this.ghostCells = this.nextGhostCells;
+    this.nextGhostCells = swap;
+    for (int i = 0; i < this.ghostCount; i++) {
+      this.cellCost[this.ghostCells[i]] = ghostCellCost();
+    }
+    this.rhs[this.goal] = 0;
+    this.openList.insertOrUpdate(this.goal, keyPrimary(this.goal), keySecondary(this.goal));
+  }
+
+  /**
+   * Fills the scratch list with the cells of all ghosts in the maze.
+   *
+   * @return the number of ghost cells.
+   */
+  private int collectGhostCells() {
+    int count = 0;
+    for (CommonMazeObject ghost : this.maze.listOfGhosts) {
+      if (ghost.getField() == null) {
+        continue;
+      }
+      if (count == this.nextGhostCells.length) {
+        this.nextGhostCells = Arrays.copyOf(this.nextGhostCells, 2 * count);
+      }
+      this.nextGhostCells[count++] = this.maze.indexOf(ghost.getField());
+    }
+    this.ghostCount = count;
+    return count;
+  }
+
+  /**
+   * Compares the ghost cells with the previous move and repairs the search around the cells that changed.
+   */
+  private void updateGhostCells() {
+    int previousCount = this.ghostCount;
+    int count = collectGhostCells();
+    // cells the ghosts left
+    for (int i = 0; i < previousCount; i++) {
+      int cell = this.ghostCells[i];
+      if (!contains(this.nextGhostCells, count, cell) && this.cellCost[cell] != 1) {
+        changeCellCost(cell, 1);
+      }
+    }
+    // cells the ghosts entered
+    for (int i = 0; i < count; i++) {
+      int cell = this.nextGhostCells[i];
+      if (this.cellCost[cell] != ghostCellCost()) {
+        changeCellCost(cell, ghostCellCost());
+      }
+    }
+    if (this.ghostCells.length < this.nextGhostCells.length) {
+      this.ghostCells = new int[this.nextGhostCells.length];
+    }
+    int[] swap = this.ghostCells;
+    this.ghostCells = this.nextGhostCells;
+    this.nextGhostCells = swap;
+  }
+
+  private static boolean contains(int[] cells, int count, int cell) {
+    for (int i = 0; i < count; i++) {
+      if (cells[i] == cell) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Changes the cost of entering the cell and updates the cells whose edges into it changed.
+   *
+   * @param cell    the cell index.
+   * @param newCost the new cost of entering the cell.
+   */
+  private void changeCellCost(int cell, int newCost) {
+    int oldCost = this.cellCost[cell];
+    this.cellCost[cell] = newCost;
+    for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+      int u = cell + direction.deltaRow() * this.cols + direction.deltaCol();
+      if (!this.maze.isWalkable(u) || u == this.goal) {
+        continue;
+      }
+      if (oldCost > newCost) {
+        this.rhs[u] = Math.min(this.rhs[u], add(newCost, this.g[cell]));
+      } else if (this.rhs[u] == add(oldCost, this.g[cell])) {
+        this.rhs[u] = lowestSuccessorCost(u);
+      }
+      updateVertex(u);
+    }
+  }
+
+  private int lowestSuccessorCost(int cell) {
+    int lowest = INFINITY;
+    for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+      int successor = cell + direction.deltaRow() * this.cols + direction.deltaCol();
+      if (this.maze.isWalkable(successor)) {
+        lowest = Math.min(lowest, add(this.cellCost[successor], this.g[successor]));
+      }
+    }
+    return lowest;
+  }
+
+  private int keyPrimary(int cell) {
+    return add(Math.min(this.g[cell], this.rhs[cell]), manhattanDistance(this.start, cell) + this.keyModifier);
+  }
+
+  private int keySecondary(int cell) {
+    return Math.min(this.g[cell], this.rhs[cell]);
+  }
+
+  private static boolean less(int primaryA, int secondaryA, int primaryB, int secondaryB) {
+    return primaryA < primaryB || (primaryA == primaryB && secondaryA < secondaryB);
+  }
+
+  private void updateVertex(int cell) {
+    if (this.g[cell] != this.rhs[cell]) {
+      this.openList.insertOrUpdate(cell, keyPrimary(cell), keySecondary(cell));
+    } else {
+      this.openList.remove(cell);
+    }
+  }
+
+  private void computeShortestPath() {
+    while (!this.openList.isEmpty()) {
+      int topPrimary = this.openList.peekPrimary();
+      int topSecondary = this.openList.peekSecondary();
+      if (!less(topPrimary, topSecondary, keyPrimary(this.start), keySecondary(this.start))
+        && this.rhs[this.start] == this.g[this.start]) {
+        break;
+      }
+      int u = this.openList.peek();
+      this.expandedNodes++;
+      int newPrimary = keyPrimary(u);
+      int newSecondary = keySecondary(u);
+      if (less(topPrimary, topSecondary, newPrimary, newSecondary)) {
+        // the key is outdated since Pacman moved
+        this.openList.insertOrUpdate(u, newPrimary, newSecondary);
+      } else if (this.g[u] > this.rhs[u]) {
+        // overconsistent, the cost of the cell decreased
+        this.g[u] = this.rhs[u];
+        this.openList.remove(u);
+        for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+          int predecessor = u + direction.deltaRow() * this.cols + direction.deltaCol();
+          if (this.maze.isWalkable(predecessor) && predecessor != this.goal) {
+            this.rhs[predecessor] = Math.min(this.rhs[predecessor], add(this.cellCost[u], this.g[u]));
+            updateVertex(predecessor);
+          }
+        }
+      } else {
+        // underconsistent, the cost of the cell increased
+        int oldG = this.g[u];
+        this.g[u] = INFINITY;
+        if (u != this.goal) {
+          this.rhs[u] = lowestSuccessorCost(u);
+        }
+        updateVertex(u);
+        for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+          int predecessor = u + direction.deltaRow() * this.cols + direction.deltaCol();
+          if (this.maze.isWalkable(predecessor) && predecessor != this.goal
+            && this.rhs[predecessor] == add(this.cellCost[u], oldG)) {
+            this.rhs[predecessor] = lowestSuccessorCost(predecessor);
+            updateVertex(predecessor);
+          }
+        }
+      }
+    }
+  }
+}
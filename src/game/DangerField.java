@@ -0,0 +1,123 @@
+package src.game;
+
+import src.tool.common.CommonField;
+
+import java.util.Arrays;
+
+/**
+ * The danger of entering every cell of a maze, growing towards the ghosts.
+ * Every ghost adds a stamp to the cells within {@link #RADIUS} moves of it, the closer the cell the higher the
+ * stamp. Stamps add up where ghosts are close to each other.
+ * The field is updated incrementally: only the ghosts that changed their cell since the last update remove
+ * their old stamp and add a new one, so a tick costs a few cells per moving ghost instead of a full rebuild.
+ */
+class DangerField {
+  static final int RADIUS = 3;
+  // danger of a cell next to a ghost, the cell of the ghost itself gets one step more
+  static final int WEIGHT = 4;
+
+  private final Maze maze;
+  private final int cols;
+  private final int[] danger;
+  // cells of the ghosts at the last update, by their position in the list of ghosts, -1 if off the maze
+  private int[] ghostCells;
+  private int ghostCount;
+  // scratch buffers of the stamp search
+  private final int[] queue;
+  private final int[] depth;
+  private final int[] seenStamp;
+  private int generation;
+
+  /**
+   * Constructs a field without any ghosts for the specified maze.
+   *
+   * @param maze the maze the field is computed for.
+   */
+  DangerField(Maze maze) {
+    this.maze = maze;
+    this.cols = maze.numCols();
+    this.danger = new int[maze.numCells()];
+    this.ghostCells = new int[8];
+    this.ghostCount = 0;
+    // a stamp never covers more cells than a diamond of the radius
+    int stampCells = 2 * RADIUS * (RADIUS + 1) + 1;
+    this.queue = new int[stampCells];
+    this.depth = new int[stampCells];
+    this.seenStamp = new int[maze.numCells()];
+    this.generation = 0;
+  }
+
+  /**
+   * Returns the danger of all cells, indexed by cell. The array is updated in place.
+   *
+   * @return the extra cost of entering every cell, 0 where no ghost is near.
+   */
+  int[] costs() {
+    return this.danger;
+  }
+
+  /**
+   * Moves the stamps of the ghosts that changed their cell since the last update.
+   */
+  void update() {
+    int count = this.maze.listOfGhosts.size();
+    if (count > this.ghostCells.length) {
+      int oldLength = this.ghostCells.length;
+      this.ghostCells = Arrays.copyOf(this.ghostCells, Math.max(count, 2 * oldLength));
+    }
+    for (int i = 0; i < count; i++) {
+      CommonField field = this.maze.listOfGhosts.get(i).getField();
+      int cell = field == null ? -1 : this.maze.indexOf(field);
+      int previous = i < this.ghostCount ? this.ghostCells[i] : -1;
+      if (cell != previous) {
+        stamp(previous, -1);
+        stamp(cell, 1);
+        this.ghostCells[i] = cell;
+      }
+    }
+    // ghosts that are no longer in the list
+    for (int i = count; i < this.ghostCount; i++) {
+      stamp(this.ghostCells[i], -1);
+    }
+    this.ghostCount = count;
+  }
+
+  /**
+   * Adds or removes the stamp of a ghost with a breadth-first search limited to the radius.
+   *
+   * @param center the cell of the ghost, or -1 to do nothing.
+   * @param sign   1 to add the stamp, -1 to remove it.
+   */
+  private void stamp(int center, int sign) {
+    if (center < 0) {
+      return;
+    }
+    this.generation++;
+    if (this.generation == 0) {
+      Arrays.fill(this.seenStamp, 0);
+      this.generation = 1;
+    }
+    int gen = this.generation;
+    int head = 0;
+    int tail = 0;
+    this.queue[tail] = center;
+    this.depth[tail++] = 0;
+    this.seenStamp[center] = gen;
+    while (head < tail) {
+      int cell = this.queue[head];
+      int distance = this.depth[head++];
+      this.danger[cell] += sign * (RADIUS + 1 - distance) * WEIGHT;
+      if (distance == RADIUS) {
+        continue;
+      }
+      for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+        int neighbor = cell + direction.deltaRow() * this.cols + direction.deltaCol();
+        if (this.maze.isWalkable(neighbor) && this.seenStamp[neighbor] != gen) {
+          this.seenStamp[neighbor] = gen;
+          this.queue[tail] = neighbor;
+          this.depth[tail++] = distance + 1;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package src.game;
+
+import src.tool.common.CommonField;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches breadth-first distance fields of a maze keyed by their destination cell.
+ * A distance field stores the walking distance from every cell to the destination, so the next move towards
+ * the destination is the neighbor with the lowest distance.
+ * The least recently used field is evicted when the cache is full.
+ * The cache has to be invalidated whenever the walkability of the maze changes.
+ */
+class DistanceFieldCache {
+  static final int DEFAULT_CAPACITY = 16;
+  static final int UNREACHABLE = -1;
+
+  private final Maze maze;
+  private final int cols;
+  private final Map<Integer, int[]> distanceFields;
+  private final int[] queue;
+  // distance array of the last evicted field, reused for the next computed field
+  private int[] spare;
+
+  /**
+   * Constructs a cache with the default capacity for the specified maze.
+   *
+   * @param maze the maze the distance fields are computed for.
+   */
+  DistanceFieldCache(Maze maze) {
+    this(maze, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs a cache for the specified maze.
+   *
+   * @param maze     the maze the distance fields are computed for.
+   * @param capacity the maximum number of distance fields kept in the cache.
+   */
+  DistanceFieldCache(Maze maze, int capacity) {
+    this.maze = maze;
+    this.cols = maze.numCols();
+    this.queue = new int[maze.numCells()];
+    this.spare = null;
+    this.distanceFields = new LinkedHashMap<>(capacity, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+        if (size() > capacity) {
+          spare = eldest.getValue();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the number of distance fields in the cache.
+   *
+   * @return the number of cached distance fields.
+   */
+  int size() {
+    return this.distanceFields.size();
+  }
+
+  /**
+   * Drops all cached distance fields.
+   */
+  void invalidate() {
+    this.distanceFields.clear();
+    this.spare = null;
+  }
+
+  /**
+   * Returns the distance field of the destination cell, computing it if it is not cached.
+   *
+   * @param destination the destination cell index.
+   * @return the distance of every cell to the destination, or {@link #UNREACHABLE}.
+   */
+  int[] distancesTo(int destination) {
+    int[] distances = this.distanceFields.get(destination);
+    if (distances == null) {
+      distances = computeDistances(destination);
+      this.distanceFields.put(destination, distances);
+    }
+    return distances;
+  }
+
+  /**
+   * Returns the direction of the next move from one field towards another field.
+   *
+   * @param from the field to move from.
+   * @param to   the destination field.
+   * @return the direction of the next move, or STOP if the destination is reached or not reachable.
+   */
+  CommonField.Direction nextDirection(CommonField from, CommonField to) {
+    int start = this.maze.indexOf(from);
+    int destination = this.maze.indexOf(to);
+    if (start == destination || !this.maze.isReachable(start, destination)) {
+      return CommonField.Direction.STOP;
+    }
+    int[] distances = distancesTo(destination);
+    if (distances[start] == UNREACHABLE) {
+      return CommonField.Direction.STOP;
+    }
+    CommonField.Direction best = CommonField.Direction.STOP;
+    int bestDistance = distances[start];
+    for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+      int neighbor = start + direction.deltaRow() * this.cols + direction.deltaCol();
+      if (this.maze.isWalkable(neighbor) && distances[neighbor] != UNREACHABLE && distances[neighbor] < bestDistance) {
+        best = direction;
+        bestDistance = distances[neighbor];
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Computes the distance field of the destination cell with a breadth-first search.
+   *
+   * @param destination the destination cell index.
+   * @return the distance of every cell to the destination, or {@link #UNREACHABLE}.
+   */
+  private int[] computeDistances(int destination) {
+    int[] distances = this.spare != null ? this.spare : new int[this.maze.numCells()];
+    this.spare = null;
+    Bitboard bitboard = this.maze.getBitboard();
+    if (bitboard != null) {
+      // expand the frontier a word of cells at a time
+      bitboard.distancesFrom(destination, distances);
+      return distances;
+    }
+    this.maze.getNeighbors().distancesFrom(destination, distances, this.queue);
+    return distances;
+  }
+}
@@ -0,0 +1,215 @@
+package src.game;
+
+import src.tool.common.CommonField;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A table of the walking distances between all pairs of walkable cells of a maze.
+ * The walkable cells are numbered densely and the table keeps one unsigned 16-bit distance for every pair of them,
+ * so both the distance and the next move between any two cells are answered in constant time.
+ * The table grows with the square of the number of walkable cells, so it is meant for small and medium mazes
+ * and is only built if the maze fits the cell budget. It is filled by one breadth-first search per walkable cell,
+ * the searches run in parallel on a {@link ForkJoinPool}.
+ */
+public class DistanceOracle {
+  /**
+   * The default maximum number of walkable cells of a maze the table is built for, about 50 MB of distances.
+   */
+  public static final int DEFAULT_CELL_BUDGET = 5000;
+  /**
+   * The distance of cells that cannot reach each other.
+   */
+  public static final int UNREACHABLE = -1;
+  // the largest number of walkable cells whose table can be indexed by an int
+  private static final int MAX_CELLS = 46340;
+  private static final char NO_PATH = Character.MAX_VALUE;
+  // breadth-first searches run by one task without splitting
+  private static final int SOURCES_PER_TASK = 16;
+
+  private final Maze maze;
+  private final int cols;
+  private final NeighborTable neighbors;
+  // dense number of every walkable cell, -1 for walls
+  private final int[] slotOfCell;
+  private final int[] cellOfSlot;
+  private final int slots;
+  // distance from slot a to slot b at index a * slots + b
+  private final char[] table;
+
+  /**
+   * Counts the walkable cells of the maze, the table needs their number squared of distances.
+   *
+   * @param maze the maze.
+   * @return the number of walkable cells.
+   */
+  static int countWalkableCells(Maze maze) {
+    int count = 0;
+    for (int cell = 0; cell < maze.numCells(); cell++) {
+      if (maze.isWalkable(cell)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Checks if the table of the maze fits the cell budget.
+   *
+   * @param maze       the maze.
+   * @param cellBudget the maximum number of walkable cells.
+   * @return true if the maze has at most the budget of walkable cells, false otherwise.
+   */
+  static boolean fits(Maze maze, int cellBudget) {
+    int walkable = countWalkableCells(maze);
+    return walkable <= cellBudget && walkable <= MAX_CELLS;
+  }
+
+  /**
+   * Builds the table of the maze. The maze must fit the cell budget, see {@link #fits(Maze, int)}.
+   *
+   * @param maze the maze.
+   * @param pool the pool the breadth-first searches run on.
+   */
+  DistanceOracle(Maze maze, ForkJoinPool pool) {
+    this.maze = maze;
+    this.cols = maze.numCols();
+    this.neighbors = maze.getNeighbors();
+    this.slotOfCell = new int[maze.numCells()];
+    Arrays.fill(this.slotOfCell, -1);
+    int count = 0;
+    for (int cell = 0; cell < maze.numCells(); cell++) {
+      if (maze.isWalkable(cell)) {
+        this.slotOfCell[cell] = count++;
+      }
+    }
+    this.slots = count;
+    this.cellOfSlot = new int[count];
+    for (int cell = 0; cell < maze.numCells(); cell++) {
+      if (this.slotOfCell[cell] >= 0) {
+        this.cellOfSlot[this.slotOfCell[cell]] = cell;
+      }
+    }
+    this.table = new char[count * count];
+    pool.invoke(new SearchTask(0, count));
+  }
+
+  /**
+   * Returns the number of walkable cells in the table.
+   *
+   * @return the number of walkable cells.
+   */
+  public int numWalkableCells() {
+    return this.slots;
+  }
+
+  /**
+   * Returns the memory taken by the table and its cell numbering.
+   *
+   * @return the size of the arrays in bytes.
+   */
+  public long memoryFootprint() {
+    return (long) Character.BYTES * this.table.length
+      + (long) Integer.BYTES * (this.slotOfCell.length + this.cellOfSlot.length);
+  }
+
+  /**
+   * Returns the walking distance between two cells.
+   *
+   * @param from the cell index to start from.
+   * @param to   the cell index to reach.
+   * @return the number of moves, or {@link #UNREACHABLE} if a cell is a wall or the cells are not connected.
+   */
+  public int distance(int from, int to) {
+    if (from < 0 || to < 0 || from >= this.slotOfCell.length || to >= this.slotOfCell.length) {
+      return UNREACHABLE;
+    }
+    int a = this.slotOfCell[from];
+    int b = this.slotOfCell[to];
+    if (a < 0 || b < 0) {
+      return UNREACHABLE;
+    }
+    char distance = this.table[a * this.slots + b];
+    return distance == NO_PATH ? UNREACHABLE : distance;
+  }
+
+  /**
+   * Returns the cell of the next move on a shortest path between two cells.
+   *
+   * @param from the cell index to start from.
+   * @param to   the cell index to reach.
+   * @return the neighboring cell index, the start cell if it is the destination, or -1 if it is not reachable.
+   */
+  public int nextHop(int from, int to) {
+    int distance = distance(from, to);
+    if (distance == UNREACHABLE) {
+      return -1;
+    }
+    if (distance == 0) {
+      return from;
+    }
+    int b = this.slotOfCell[to];
+    for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+      int neighbor = from + direction.deltaRow() * this.cols + direction.deltaCol();
+      if (this.maze.isWalkable(neighbor) && this.table[this.slotOfCell[neighbor] * this.slots + b] == distance - 1) {
+        return neighbor;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the direction of the next move on a shortest path between two cells.
+   *
+   * @param from the cell index to start from.
+   * @param to   the cell index to reach.
+   * @return the direction of the next move, or STOP if the destination is reached or not reachable.
+   */
+  public CommonField.Direction nextDirection(int from, int to) {
+    int next = nextHop(from, to);
+    return next < 0 ? CommonField.Direction.STOP : PathFinder.getDirectionTo(from, next, this.cols);
+  }
+
+  /**
+   * Fills the rows of the table of a range of source cells, splitting the range in halves until it is small.
+   */
+  private class SearchTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int from;
+    private final int to;
+
+    SearchTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from > SOURCES_PER_TASK) {
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new SearchTask(this.from, middle), new SearchTask(middle, this.to));
+        return;
+      }
+      int[] distance = new int[maze.numCells()];
+      Arrays.fill(distance, -1);
+      int[] queue = new int[slots];
+      for (int source = this.from; source < this.to; source++) {
+        fillRow(source, distance, queue);
+      }
+    }
+
+    private void fillRow(int source, int[] distance, int[] queue) {
+      int row = source * slots;
+      Arrays.fill(table, row, row + slots, NO_PATH);
+      int reached = neighbors.search(cellOfSlot[source], distance, queue);
+      // only the reached cells are cleared for the next search
+      for (int i = 0; i < reached; i++) {
+        int cell = queue[i];
+        table[row + slotOfCell[cell]] = (char) distance[cell];
+        distance[cell] = -1;
+      }
+    }
+  }
+}
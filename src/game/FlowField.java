@@ -0,0 +1,88 @@
+package src.game;
+
+import src.tool.common.CommonField;
+
+import java.util.Arrays;
+
+/**
+ * A flow field leading every cell of a maze to a single source cell.
+ * The field is computed by one breadth-first search from the source, after that the next move of any object
+ * towards the source is a single array lookup. All ghosts chasing Pacman share one field per game tick.
+ */
+class FlowField {
+  private static final byte NO_MOVE = -1;
+
+  private final Maze maze;
+  // index into PathFinder.DIRECTIONS of the move towards the source, or NO_MOVE
+  private final byte[] nextMove;
+  private final int[] distance;
+  private final int[] queue;
+  private int source;
+
+  /**
+   * Constructs an empty flow field for the specified maze.
+   *
+   * @param maze the maze the field is computed for.
+   */
+  FlowField(Maze maze) {
+    this.maze = maze;
+    this.nextMove = new byte[maze.numCells()];
+    this.distance = new int[maze.numCells()];
+    this.queue = new int[maze.numCells()];
+    this.source = -1;
+  }
+
+  /**
+   * Returns the source cell of the field.
+   *
+   * @return the source cell index, or -1 if the field has not been computed yet.
+   */
+  int getSource() {
+    return this.source;
+  }
+
+  /**
+   * Computes the field towards the specified source cell.
+   *
+   * @param source the source cell index.
+   */
+  void compute(int source) {
+    this.source = source;
+    Arrays.fill(this.nextMove, NO_MOVE);
+    NeighborTable neighbors = this.maze.getNeighbors();
+    int reached = neighbors.distancesFrom(source, this.distance, this.queue);
+    // the reached cells in the order of the search, so every cell moves back to the cell it was reached from
+    for (int i = 0; i < reached; i++) {
+      int current = this.queue[i];
+      for (int open = neighbors.mask(current); open != 0; open &= open - 1) {
+        int d = Integer.numberOfTrailingZeros(open);
+        int neighbor = neighbors.neighbor(current, d);
+        if (this.nextMove[neighbor] == NO_MOVE && neighbor != source
+          && this.distance[neighbor] == this.distance[current] + 1) {
+          this.nextMove[neighbor] = (byte) ((d + 2) % PathFinder.DIRECTIONS.length);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the distance of the cell to the source.
+   *
+   * @param cell the cell index.
+   * @return the walking distance to the source, or -1 if the source is not reachable.
+   */
+  int distanceAt(int cell) {
+    return this.distance[cell];
+  }
+
+  /**
+   * Returns the direction of the next move from the cell towards the source.
+   *
+   * @param cell the cell index.
+   * @return the direction of the next move, or STOP on the source and on cells the source is not reachable from.
+   */
+  CommonField.Direction directionAt(int cell) {
+    byte move = this.nextMove[cell];
+    return move == NO_MOVE ? CommonField.Direction.STOP : PathFinder.DIRECTIONS[move];
+  }
+}
@@ -1,6 +1,7 @@
 package src.game;
 
 import src.game.resources.GameState;
+import src.game.resources.GhostMode;
 import src.game.resources.ObjectType;
 import src.tool.*;
 import src.tool.common.CommonField;
@@ -10,9 +11,7 @@ import src.tool.common.CommonMazeObject;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowEvent;
-import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +28,8 @@ public class Game {
   Sound sound = new Sound();
   //game delay in ms
   private final int tickLength;
+  //pause in ms after Pacman is caught or wins
+  private int catchPause;
   private final boolean pauseGhosts;
 
   List<CommonMazeObject> allMazeObjects;
@@ -44,6 +45,7 @@ public class Game {
    */
   public Game() {
     this.tickLength = 500;
+    this.catchPause = 1000;
     this.pauseGhosts = false;
     this.recorder = null;
     this.resetFlag = false;
@@ -59,6 +61,7 @@ public class Game {
    */
   public Game(int gameSpeed, boolean pauseGhosts) {
     this.tickLength = gameSpeed;
+    this.catchPause = 1000;
     this.pauseGhosts = pauseGhosts;
     this.recorder = null;
     this.resetFlag = false;
@@ -179,13 +182,7 @@ public class Game {
     if (this.recorder != null)
       this.recorder.recordMaze(pathToMaze);
     //load maze
-    try (InputStream inputStream = Files.newInputStream(pathToMaze)) {
-      this.maze = this.createMaze(inputStream);
-    } catch (IOException e) {
-      e.printStackTrace();
-      System.out.println("Error opening file.");
-      return null;
-    }
+    this.maze = new MazeConfigure().loadMaze(pathToMaze);
     //check if loaded
     if (this.maze == null) {
       System.out.println("Error while loading maze");
@@ -326,6 +323,14 @@ public class Game {
     this.frame.setPreferredSize(new Dimension(650, 700));
   }
 
+  /**
+   * Sets the pause after Pacman is caught or wins, one second by default.
+   * @param catchPause  the pause in milliseconds.
+   */
+  public void setCatchPause(int catchPause) {
+    this.catchPause = catchPause;
+  }
+
   /**
    * Selects the maze file to use for the game. The maze file is selected based on the index.
    * @param index  the index of the maze file to use.
@@ -366,6 +371,19 @@ public class Game {
     }
   }
 
+  /**
+   * Checks if any ghost in the maze chases Pacman.
+   *
+   * @return true if at least one ghost is in the chase mode, false otherwise.
+   */
+  private boolean hasChasingGhost() {
+    for (CommonMazeObject mazeObject : this.allMazeObjects) {
+      if (mazeObject.getType() == ObjectType.GHOST && ((GhostObject) mazeObject).getMode() == GhostMode.CHASE)
+        return true;
+    }
+    return false;
+  }
+
   /**
    * Moves all `CommonMazeObject` instances in the maze. If pacman has boost, he moves twice as fast.
    */
@@ -376,7 +394,7 @@ public class Game {
       pacman.move();
       this.recorder.captureState(this.allMazeObjects, true);
       if (pacman.isCaughtByGhost() || pacman.isVictorious()) {
-        sleep(1000);
+        sleep(this.catchPause);
         this.resetFlag = true;
         return;
       }
@@ -388,8 +406,11 @@ public class Game {
       if (mazeObject.getType() == ObjectType.GHOST && this.pauseGhosts)
         continue;
       mazeObject.move();
+      //One flow field to pacman is shared by all chasing ghosts
+      if (mazeObject.isPacman() && this.hasChasingGhost())
+        ((Maze) this.maze).updateChaseField();
       if (pacman.isCaughtByGhost()) {
-        sleep(1000);
+        sleep(this.catchPause);
         this.resetFlag = true;
         break;
       }
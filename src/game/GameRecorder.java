@@ -105,17 +105,28 @@ public class GameRecorder {
   }
 
   /**
-   * Records the maze from the specified path and writes it to the file.
+   * Records the maze from the specified path and writes it to the file. A binary maze is written in the text
+   * format, which the replay reads.
    *
    * @param pathToMaze the path to the maze file
    */
   public void recordMaze(Path pathToMaze) {
     try (InputStream inputStream = Files.newInputStream(pathToMaze)) {
-      // Read the maze from the input stream and write it to the file
-      BufferedReader br = new BufferedReader(new InputStreamReader(inputStream));
-      String line;
-      while ((line = br.readLine()) != null) {
-        this.writer.println(line);
+      if (MazeConverter.isBinary(pathToMaze)) {
+        BinaryMazeFormat.decode(inputStream, this.writer);
+        return;
+      }
+      // Copy the maze to the file in blocks instead of line by line
+      Reader reader = new InputStreamReader(inputStream);
+      char[] buffer = new char[1 << 16];
+      char last = '\n';
+      int read;
+      while ((read = reader.read(buffer)) > 0) {
+        this.writer.write(buffer, 0, read);
+        last = buffer[read - 1];
+      }
+      if (last != '\n') {
+        this.writer.println();
       }
     } catch (IOException e) {
       e.printStackTrace();
@@ -150,6 +150,15 @@ public class GameReplay implements Runnable {
     return maze;
   }
 
+  /**
+   * Gets the number of recorded states of the game replay.
+   *
+   * @return the number of states
+   */
+  public int getTotalStates() {
+    return totalStates;
+  }
+
   /**
    * Sets the maze for the game replay.
    *
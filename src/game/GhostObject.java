@@ -1,5 +1,6 @@
 package src.game;
 
+import src.game.resources.GhostMode;
 import src.game.resources.ObjectType;
 import src.tool.common.CommonField;
 import src.tool.common.CommonMazeObject;
@@ -17,6 +18,7 @@ public class GhostObject implements CommonMazeObject {
   PathField currentField;
   private CommonField.Direction direction;
   private final int imageIndex;
+  private GhostMode mode;
 
   /**
    * Constructor for GhostObject.
@@ -26,6 +28,7 @@ public class GhostObject implements CommonMazeObject {
   public GhostObject(PathField field) {
     this.currentField = field;
     this.direction = CommonField.Direction.STOP;
+    this.mode = GhostMode.RANDOM;
 
     // initialize imageIndex to a random number between 0 and 3
     Random rand = new Random();
@@ -69,8 +72,8 @@ public class GhostObject implements CommonMazeObject {
    */
   @Override
   public boolean canMove(PathField.Direction direction) {
-    CommonField nextField = this.currentField.nextField(direction);
-    return nextField.canMove();
+    Maze maze = (Maze) this.currentField.getMaze();
+    return maze.getNeighbors().canMove(maze.indexOf(this.currentField), direction);
   }
 
   /**
@@ -85,9 +88,104 @@ public class GhostObject implements CommonMazeObject {
   }
 
   /**
-   * Chooses a random direction for the ghost to move in.
+   * Sets the way the ghost chooses its direction.
+   *
+   * @param mode the mode of the ghost
+   */
+  public void setMode(GhostMode mode) {
+    this.mode = mode;
+  }
+
+  /**
+   * Gets the way the ghost chooses its direction.
+   *
+   * @return the mode of the ghost
+   */
+  public GhostMode getMode() {
+    return this.mode;
+  }
+
+  /**
+   * Chooses the direction for the ghost to move in according to its mode.
    */
   private void chooseDirection() {
+    if (this.mode == GhostMode.CHASE && this.chooseChaseDirection()) {
+      return;
+    }
+    if (this.mode == GhostMode.COORDINATED && this.chooseCoordinatedDirection()) {
+      return;
+    }
+    if (this.followCorridor()) {
+      return;
+    }
+    this.chooseRandomDirection();
+  }
+
+  /**
+   * Chooses the direction towards Pacman from the distance table of the maze if it is built, or from the flow
+   * field shared by all chasing ghosts.
+   *
+   * @return true if a direction was chosen, false if Pacman is not reachable
+   */
+  private boolean chooseChaseDirection() {
+    Maze maze = (Maze) this.currentField.getMaze();
+    CommonField.Direction chase;
+    DistanceOracle oracle = maze.getDistanceOracle();
+    if (oracle != null) {
+      PacmanObject pacman = maze.getPacman();
+      if (pacman == null || pacman.getField() == null) {
+        return false;
+      }
+      chase = oracle.nextDirection(maze.indexOf(this.currentField), maze.indexOf(pacman.getField()));
+    } else {
+      // the game loop updates the field once per tick, this only catches up when ghosts are moved on their own
+      maze.updateChaseField();
+      chase = maze.getChaseField().directionAt(maze.indexOf(this.currentField));
+    }
+    if (chase == CommonField.Direction.STOP) {
+      return false;
+    }
+    this.direction = chase;
+    return true;
+  }
+
+  /**
+   * Takes the move planned for the ghost by the space-time planner of the maze, which may also be to wait.
+   *
+   * @return true if a move was planned, false if Pacman is not in the maze
+   */
+  private boolean chooseCoordinatedDirection() {
+    Maze maze = (Maze) this.currentField.getMaze();
+    CommonField.Direction planned = maze.getSpaceTimePlanner().nextDirection(this);
+    if (planned == null) {
+      return false;
+    }
+    this.direction = planned;
+    return true;
+  }
+
+  /**
+   * Keeps going along the corridor of the junction graph, the only choice a ghost that does not turn back has.
+   *
+   * @return true if the ghost is in a corridor of the junction graph, false if it has to choose a direction
+   */
+  private boolean followCorridor() {
+    Maze maze = (Maze) this.currentField.getMaze();
+    if (!maze.hasJunctionGraph()) {
+      return false;
+    }
+    CommonField.Direction next = maze.getJunctionGraph().continueCorridor(maze.indexOf(this.currentField), this.direction);
+    if (next == CommonField.Direction.STOP) {
+      return false;
+    }
+    this.direction = next;
+    return true;
+  }
+
+  /**
+   * Chooses a random direction for the ghost to move in.
+   */
+  private void chooseRandomDirection() {
     List<CommonField.Direction> possibleDirections = new ArrayList<>();
     for (CommonField.Direction direction : CommonField.Direction.values()) {
       // skip STOP and opposite direction
@@ -0,0 +1,431 @@
+package src.game;
+
+import src.tool.common.CommonField;
+
+import java.util.Arrays;
+
+/**
+ * An abstract graph of a maze for hierarchical path finding (HPA*).
+ * The maze is split into square clusters. Wherever two neighboring clusters share open border cells, the cells
+ * on both sides of the border become entrance nodes connected by an edge of cost 1. Entrance nodes of the same
+ * cluster are connected by edges weighted by their walking distance inside the cluster.
+ * A query connects the start and the destination to the entrances of their clusters, searches the much smaller
+ * abstract graph and refines only the first step of the found path.
+ * The found paths are near optimal, every step taken along them makes the remaining path shorter.
+ */
+class HierarchicalGraph {
+  static final int DEFAULT_CLUSTER_SIZE = 32;
+  // runs of open border cells at least this long get an entrance at both ends instead of one in the middle
+  private static final int LONG_ENTRANCE = 6;
+  private static final int UNREACHABLE = -1;
+
+  private final Maze maze;
+  private final int rows;
+  private final int cols;
+  private final int clusterSize;
+  private final int clusterCols;
+  // abstract nodes
+  private int nodeCount;
+  private int[] nodeCell;
+  private final int[] nodeOfCell;
+  // nodes of every cluster in compressed form: nodes of cluster c are clusterNodes[clusterStart[c]..clusterStart[c+1])
+  private int[] clusterStart;
+  private int[] clusterNodes;
+  // edges in compressed form: edges of node n are edgeTarget/edgeCost[edgeStart[n]..edgeStart[n+1])
+  private int[] edgeStart;
+  private int[] edgeTarget;
+  private int[] edgeCost;
+  // edges collected while building, before they are compressed
+  private int[] buildFrom;
+  private int[] buildTo;
+  private int[] buildCost;
+  private int buildEdges;
+
+  // query buffers, the two extra nodes are the start and the destination of the query
+  private final int[] localDistance;
+  private final int[] localParent;
+  private final int[] goalDistance;
+  private final int[] localQueue;
+  private final int[] gCost;
+  private final int[] parent;
+  private final int[] seenStamp;
+  private final int[] closedStamp;
+  private final int[] path;
+  private final IndexedHeap openList;
+  private int generation;
+  private int expandedNodes;
+
+  /**
+   * Builds the abstract graph of the maze.
+   *
+   * @param maze        the maze to build the graph for.
+   * @param clusterSize the width and height of the clusters in cells.
+   */
+  HierarchicalGraph(Maze maze, int clusterSize) {
+    this.maze = maze;
+    this.rows = maze.numRows();
+    this.cols = maze.numCols();
+    this.clusterSize = clusterSize;
+    this.clusterCols = (this.cols + clusterSize - 1) / clusterSize;
+    this.nodeOfCell = new int[maze.numCells()];
+    Arrays.fill(this.nodeOfCell, -1);
+    this.nodeCell = new int[64];
+    this.nodeCount = 0;
+    this.buildFrom = new int[64];
+    this.buildTo = new int[64];
+    this.buildCost = new int[64];
+    this.buildEdges = 0;
+    this.localDistance = new int[clusterSize * clusterSize];
+    this.localParent = new int[clusterSize * clusterSize];
+    this.goalDistance = new int[clusterSize * clusterSize];
+    this.localQueue = new int[clusterSize * clusterSize];
+    this.build();
+    int nodes = this.nodeCount + 2;
+    this.gCost = new int[nodes];
+    this.parent = new int[nodes];
+    this.seenStamp = new int[nodes];
+    this.closedStamp = new int[nodes];
+    this.path = new int[nodes];
+    this.openList = new IndexedHeap(nodes);
+    this.generation = 0;
+    this.expandedNodes = 0;
+  }
+
+  /**
+   * Returns the number of entrance nodes of the abstract graph.
+   *
+   * @return the number of entrance nodes.
+   */
+  int numNodes() {
+    return this.nodeCount;
+  }
+
+  /**
+   * Returns the number of abstract nodes expanded by the last query.
+   *
+   * @return the number of expanded nodes.
+   */
+  int getExpandedNodes() {
+    return this.expandedNodes;
+  }
+
+  private int clusterOf(int cell) {
+    return (cell / this.cols / this.clusterSize) * this.clusterCols + (cell % this.cols) / this.clusterSize;
+  }
+
+  private int manhattanDistance(int a, int b) {
+    return Math.abs(a / this.cols - b / this.cols) + Math.abs(a % this.cols - b % this.cols);
+  }
+
+  private void build() {
+    int clusterRows = (this.rows + this.clusterSize - 1) / this.clusterSize;
+    // entrances between horizontally neighboring clusters
+    for (int c = this.clusterSize - 1; c + 1 < this.cols; c += this.clusterSize) {
+      for (int r0 = 0; r0 < this.rows; r0 += this.clusterSize) {
+        addEntrances(r0 * this.cols + c, this.cols, 1, Math.min(this.clusterSize, this.rows - r0));
+      }
+    }
+    // entrances between vertically neighboring clusters
+    for (int r = this.clusterSize - 1; r + 1 < this.rows; r += this.clusterSize) {
+      for (int c0 = 0; c0 < this.cols; c0 += this.clusterSize) {
+        addEntrances(r * this.cols + c0, 1, this.cols, Math.min(this.clusterSize, this.cols - c0));
+      }
+    }
+    groupNodesByCluster(clusterRows * this.clusterCols);
+    // paths between entrances of the same cluster
+    for (int cluster = 0; cluster < clusterRows * this.clusterCols; cluster++) {
+      for (int i = this.clusterStart[cluster]; i < this.clusterStart[cluster + 1]; i++) {
+        int node = this.clusterNodes[i];
+        localSearch(this.nodeCell[node], this.localDistance, false);
+        for (int j = this.clusterStart[cluster]; j < this.clusterStart[cluster + 1]; j++) {
+          int other = this.clusterNodes[j];
+          int distance = this.localDistance[localIndex(this.nodeCell[node], this.nodeCell[other])];
+          if (other != node && distance != UNREACHABLE) {
+            addEdge(node, other, distance);
+          }
+        }
+      }
+    }
+    compressEdges();
+    this.buildFrom = null;
+    this.buildTo = null;
+    this.buildCost = null;
+  }
+
+  /**
+   * Adds entrances along a border segment between two clusters.
+   *
+   * @param first  the first border cell on the side of the first cluster.
+   * @param along  the index offset between consecutive cells of the border.
+   * @param across the index offset from a border cell to the cell on the other side of the border.
+   * @param length the number of cells of the border segment.
+   */
+  private void addEntrances(int first, int along, int across, int length) {
+    int runStart = -1;
+    for (int i = 0; i <= length; i++) {
+      int cell = first + i * along;
+      boolean open = i < length && this.maze.isWalkable(cell) && this.maze.isWalkable(cell + across);
+      if (open && runStart < 0) {
+        runStart = i;
+      } else if (!open && runStart >= 0) {
+        int runEnd = i - 1;
+        if (runEnd - runStart + 1 < LONG_ENTRANCE) {
+          addTransition(first + ((runStart + runEnd) / 2) * along, across);
+        } else {
+          addTransition(first + runStart * along, across);
+          addTransition(first + runEnd * along, across);
+        }
+        runStart = -1;
+      }
+    }
+  }
+
+  private void addTransition(int cell, int across) {
+    int a = nodeOf(cell);
+    int b = nodeOf(cell + across);
+    addEdge(a, b, 1);
+    addEdge(b, a, 1);
+  }
+
+  private int nodeOf(int cell) {
+    if (this.nodeOfCell[cell] < 0) {
+      if (this.nodeCount == this.nodeCell.length) {
+        this.nodeCell = Arrays.copyOf(this.nodeCell, 2 * this.nodeCount);
+      }
+      this.nodeCell[this.nodeCount] = cell;
+      this.nodeOfCell[cell] = this.nodeCount++;
+    }
+    return this.nodeOfCell[cell];
+  }
+
+  private void addEdge(int from, int to, int cost) {
+    if (this.buildEdges == this.buildFrom.length) {
+      this.buildFrom = Arrays.copyOf(this.buildFrom, 2 * this.buildEdges);
+      this.buildTo = Arrays.copyOf(this.buildTo, 2 * this.buildEdges);
+      this.buildCost = Arrays.copyOf(this.buildCost, 2 * this.buildEdges);
+    }
+    this.buildFrom[this.buildEdges] = from;
+    this.buildTo[this.buildEdges] = to;
+    this.buildCost[this.buildEdges] = cost;
+    this.buildEdges++;
+  }
+
+  private void groupNodesByCluster(int clusters) {
+    this.nodeCell = Arrays.copyOf(this.nodeCell, this.nodeCount);
+    this.clusterStart = new int[clusters + 1];
+    for (int node = 0; node < this.nodeCount; node++) {
+      this.clusterStart[clusterOf(this.nodeCell[node]) + 1]++;
+    }
+    for (int c = 0; c < clusters; c++) {
+      this.clusterStart[c + 1] += this.clusterStart[c];
+    }
+    int[] next = Arrays.copyOf(this.clusterStart, clusters);
+    this.clusterNodes = new int[this.nodeCount];
+    for (int node = 0; node < this.nodeCount; node++) {
+      this.clusterNodes[next[clusterOf(this.nodeCell[node])]++] = node;
+    }
+  }
+
+  private void compressEdges() {
+    this.edgeStart = new int[this.nodeCount + 1];
+    for (int e = 0; e < this.buildEdges; e++) {
+      this.edgeStart[this.buildFrom[e] + 1]++;
+    }
+    for (int n = 0; n < this.nodeCount; n++) {
+      this.edgeStart[n + 1] += this.edgeStart[n];
+    }
+    int[] next = Arrays.copyOf(this.edgeStart, this.nodeCount);
+    this.edgeTarget = new int[this.buildEdges];
+    this.edgeCost = new int[this.buildEdges];
+    for (int e = 0; e < this.buildEdges; e++) {
+      int slot = next[this.buildFrom[e]]++;
+      this.edgeTarget[slot] = this.buildTo[e];
+      this.edgeCost[slot] = this.buildCost[e];
+    }
+  }
+
+  /**
+   * Returns the index of a cell in the buffers of the cluster of another cell.
+   *
+   * @param origin a cell of the cluster.
+   * @param cell   a cell of the same cluster.
+   * @return the index of the cell in the cluster buffers.
+   */
+  private int localIndex(int origin, int cell) {
+    int r0 = (origin / this.cols / this.clusterSize) * this.clusterSize;
+    int c0 = ((origin % this.cols) / this.clusterSize) * this.clusterSize;
+    return (cell / this.cols - r0) * this.clusterSize + (cell % this.cols - c0);
+  }
+
+  /**
+   * Runs a breadth-first search from the cell that does not leave its cluster.
+   *
+   * @param origin    the cell to search from.
+   * @param distances the buffer for the distances of the cluster cells, indexed by {@link #localIndex}.
+   * @param parents   whether to fill in the local parent buffer.
+   */
+  private void localSearch(int origin, int[] distances, boolean parents) {
+    int r0 = (origin / this.cols / this.clusterSize) * this.clusterSize;
+    int c0 = ((origin % this.cols) / this.clusterSize) * this.clusterSize;
+    int r1 = Math.min(this.rows, r0 + this.clusterSize);
+    int c1 = Math.min(this.cols, c0 + this.clusterSize);
+    Arrays.fill(distances, UNREACHABLE);
+    int head = 0;
+    int tail = 0;
+    distances[localIndex(origin, origin)] = 0;
+    if (parents) {
+      this.localParent[localIndex(origin, origin)] = -1;
+    }
+    this.localQueue[tail++] = origin;
+    while (head < tail) {
+      int current = this.localQueue[head++];
+      int nextDistance = distances[localIndex(origin, current)] + 1;
+      for (CommonField.Direction direction : PathFinder.DIRECTIONS) {
+        int r = current / this.cols + direction.deltaRow();
+        int c = current % this.cols + direction.deltaCol();
+        if (r < r0 || r >= r1 || c < c0 || c >= c1) {
+          continue;
+        }
+        int neighbor = r * this.cols + c;
+        int local = localIndex(origin, neighbor);
+        if (distances[local] == UNREACHABLE && this.maze.isWalkable(neighbor)) {
+          distances[local] = nextDistance;
+          if (parents) {
+            this.localParent[local] = current;
+          }
+          this.localQueue[tail++] = neighbor;
+        }
+      }
+    }
+  }
+
+  private void nextGeneration() {
+    this.openList.clear();
+    this.generation++;
+    if (this.generation == 0) {
+      Arrays.fill(this.seenStamp, 0);
+      Arrays.fill(this.closedStamp, 0);
+      this.generation = 1;
+    }
+  }
+
+  private void relax(int from, int to, int cost, int goal) {
+    int gen = this.generation;
+    if (this.closedStamp[to] == gen) {
+      return;
+    }
+    int tentativeGCost = this.gCost[from] + cost;
+    if (this.seenStamp[to] == gen && this.gCost[to] <= tentativeGCost) {
+      return;
+    }
+    this.seenStamp[to] = gen;
+    this.gCost[to] = tentativeGCost;
+    this.parent[to] = from;
+    int hCost = to == this.nodeCount + 1 ? 0 : manhattanDistance(this.nodeCell[to], goal);
+    this.openList.insertOrUpdate(to, tentativeGCost + hCost, hCost);
+  }
+
+  /**
+   * Finds the first cell on a path from the start cell to the destination cell.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the first cell of the path, the start cell if it is the destination, or -1 if the destination is not
+   * reachable.
+   */
+  int firstStep(int start, int destination) {
+    this.expandedNodes = 0;
+    if (start == destination) {
+      return start;
+    }
+    if (!this.maze.isWalkable(destination)) {
+      return -1;
+    }
+    int startNode = this.nodeCount;
+    int goalNode = this.nodeCount + 1;
+    int startCluster = clusterOf(start);
+    int goalCluster = clusterOf(destination);
+    localSearch(destination, this.goalDistance, false);
+    localSearch(start, this.localDistance, true);
+
+    nextGeneration();
+    this.gCost[startNode] = 0;
+    this.parent[startNode] = -1;
+    this.seenStamp[startNode] = this.generation;
+    this.closedStamp[startNode] = this.generation;
+    // connect the start to the entrances of its cluster and, inside one cluster, directly to the destination
+    if (startCluster == goalCluster && this.localDistance[localIndex(start, destination)] != UNREACHABLE) {
+      relax(startNode, goalNode, this.localDistance[localIndex(start, destination)], destination);
+    }
+    for (int i = this.clusterStart[startCluster]; i < this.clusterStart[startCluster + 1]; i++) {
+      int node = this.clusterNodes[i];
+      int distance = this.localDistance[localIndex(start, this.nodeCell[node])];
+      if (distance != UNREACHABLE) {
+        relax(startNode, node, distance, destination);
+      }
+    }
+
+    boolean found = false;
+    while (!this.openList.isEmpty()) {
+      int current = this.openList.poll();
+      if (current == goalNode) {
+        found = true;
+        break;
+      }
+      this.closedStamp[current] = this.generation;
+      this.expandedNodes++;
+      for (int e = this.edgeStart[current]; e < this.edgeStart[current + 1]; e++) {
+        relax(current, this.edgeTarget[e], this.edgeCost[e], destination);
+      }
+      // entrances of the destination cluster connect to the destination
+      int cell = this.nodeCell[current];
+      if (clusterOf(cell) == goalCluster) {
+        int distance = this.goalDistance[localIndex(destination, cell)];
+        if (distance != UNREACHABLE) {
+          relax(current, goalNode, distance, destination);
+        }
+      }
+    }
+    if (!found) {
+      return -1;
+    }
+    return refineFirstStep(start, destination, startCluster);
+  }
+
+  /**
+   * Turns the first abstract edge of the found path into the first move on the grid.
+   *
+   * @param start        the start cell index.
+   * @param destination  the destination cell index.
+   * @param startCluster the cluster of the start cell.
+   * @return the first cell of the path.
+   */
+  private int refineFirstStep(int start, int destination, int startCluster) {
+    int startNode = this.nodeCount;
+    int goalNode = this.nodeCount + 1;
+    // read the abstract path from the start to the destination
+    int length = 0;
+    for (int node = goalNode; node != startNode; node = this.parent[node]) {
+      this.path[length++] = node;
+    }
+    for (int i = length - 1; i >= 0; i--) {
+      int node = this.path[i];
+      int cell = node == goalNode ? destination : this.nodeCell[node];
+      if (cell == start) {
+        // the start is an entrance itself
+        continue;
+      }
+      if (clusterOf(cell) != startCluster) {
+        // an edge between two clusters leaving the start entrance, the cells are neighbors
+        return cell;
+      }
+      // walk the local search tree back from the cell to the start
+      int current = cell;
+      while (this.localParent[localIndex(start, current)] != start) {
+        current = this.localParent[localIndex(start, current)];
+      }
+      return current;
+    }
+    return start;
+  }
+}
@@ -0,0 +1,209 @@
+package src.game;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of cell indices with an index table, so that the position of every cell in the heap is known
+ * and its key can be changed in O(log n).
+ * Each entry is ordered by a primary key and, on ties, by a secondary key.
+ * All storage is allocated once in the constructor, so the heap can be reused by calling {@link #clear()}.
+ */
+class IndexedHeap {
+  private final int[] heap;
+  private final int[] position;
+  private final int[] primaryKey;
+  private final int[] secondaryKey;
+  private int size;
+
+  /**
+   * Constructs an empty heap for cell indices in range [0, capacity).
+   *
+   * @param capacity the number of cells that can be stored in the heap.
+   */
+  IndexedHeap(int capacity) {
+    this.heap = new int[capacity];
+    this.position = new int[capacity];
+    this.primaryKey = new int[capacity];
+    this.secondaryKey = new int[capacity];
+    this.size = 0;
+    Arrays.fill(this.position, -1);
+  }
+
+  /**
+   * Returns the number of cells the heap was created for.
+   *
+   * @return the capacity of the heap.
+   */
+  int capacity() {
+    return this.heap.length;
+  }
+
+  /**
+   * Checks if the heap is empty.
+   *
+   * @return true if the heap is empty, false otherwise.
+   */
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns the number of cells in the heap.
+   *
+   * @return the number of cells in the heap.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Checks if the cell is in the heap.
+   *
+   * @param cell the cell index.
+   * @return true if the cell is in the heap, false otherwise.
+   */
+  boolean contains(int cell) {
+    return this.position[cell] >= 0;
+  }
+
+  /**
+   * Inserts the cell into the heap, or changes its keys if it is already in the heap.
+   *
+   * @param cell      the cell index.
+   * @param primary   the primary key of the cell.
+   * @param secondary the secondary key used on ties of the primary key.
+   */
+  void insertOrUpdate(int cell, int primary, int secondary) {
+    int pos = this.position[cell];
+    this.primaryKey[cell] = primary;
+    this.secondaryKey[cell] = secondary;
+    if (pos < 0) {
+      pos = this.size++;
+      this.heap[pos] = cell;
+      this.position[cell] = pos;
+      siftUp(pos);
+    } else {
+      // the key may have moved in either direction
+      siftUp(pos);
+      siftDown(this.position[cell]);
+    }
+  }
+
+  /**
+   * Returns the cell with the lowest keys without removing it.
+   *
+   * @return the cell with the lowest keys.
+   */
+  int peek() {
+    return this.heap[0];
+  }
+
+  /**
+   * Returns the primary key of the cell on the top of the heap.
+   *
+   * @return the lowest primary key in the heap.
+   */
+  int peekPrimary() {
+    return this.primaryKey[this.heap[0]];
+  }
+
+  /**
+   * Returns the secondary key of the cell on the top of the heap.
+   *
+   * @return the secondary key of the cell with the lowest keys.
+   */
+  int peekSecondary() {
+    return this.secondaryKey[this.heap[0]];
+  }
+
+  /**
+   * Removes and returns the cell with the lowest keys.
+   *
+   * @return the cell with the lowest keys.
+   */
+  int poll() {
+    int top = this.heap[0];
+    removeAt(0);
+    return top;
+  }
+
+  /**
+   * Removes the cell from the heap if it is present.
+   *
+   * @param cell the cell index.
+   */
+  void remove(int cell) {
+    int pos = this.position[cell];
+    if (pos >= 0) {
+      removeAt(pos);
+    }
+  }
+
+  /**
+   * Removes all cells from the heap. Runs in time proportional to the number of cells left in the heap.
+   */
+  void clear() {
+    for (int i = 0; i < this.size; i++) {
+      this.position[this.heap[i]] = -1;
+    }
+    this.size = 0;
+  }
+
+  private void removeAt(int pos) {
+    int cell = this.heap[pos];
+    int last = this.heap[--this.size];
+    this.position[cell] = -1;
+    if (pos == this.size) {
+      return;
+    }
+    this.heap[pos] = last;
+    this.position[last] = pos;
+    siftUp(pos);
+    siftDown(this.position[last]);
+  }
+
+  private boolean less(int a, int b) {
+    if (this.primaryKey[a] != this.primaryKey[b]) {
+      return this.primaryKey[a] < this.primaryKey[b];
+    }
+    return this.secondaryKey[a] < this.secondaryKey[b];
+  }
+
+  private void siftUp(int pos) {
+    int cell = this.heap[pos];
+    while (pos > 0) {
+      int parentPos = (pos - 1) >>> 1;
+      int parent = this.heap[parentPos];
+      if (!less(cell, parent)) {
+        break;
+      }
+      this.heap[pos] = parent;
+      this.position[parent] = pos;
+      pos = parentPos;
+    }
+    this.heap[pos] = cell;
+    this.position[cell] = pos;
+  }
+
+  private void siftDown(int pos) {
+    int cell = this.heap[pos];
+    int half = this.size >>> 1;
+    while (pos < half) {
+      int childPos = 2 * pos + 1;
+      int child = this.heap[childPos];
+      int rightPos = childPos + 1;
+      if (rightPos < this.size && less(this.heap[rightPos], child)) {
+        childPos = rightPos;
+        child = this.heap[childPos];
+      }
+      if (!less(child, cell)) {
+        break;
+      }
+      this.heap[pos] = child;
+      this.position[child] = pos;
+      pos = childPos;
+    }
+    this.heap[pos] = cell;
+    this.position[cell] = pos;
+  }
+}
@@ -0,0 +1,359 @@
+package src.game;
+
+import src.tool.common.CommonField;
+
+import java.util.Arrays;
+
+/**
+ * A graph of the junctions and dead ends of a maze, in which every corridor is contracted into a single edge
+ * weighted by its length.
+ * Cells with other than two walkable neighbors become nodes. Cells with exactly two walkable neighbors lie on
+ * a corridor between two nodes, and every corridor cell knows its offset along the corridor and the directions
+ * towards both of its ends. A closed loop without any junction gets one of its cells promoted to a node.
+ * A query searches the graph with A* and returns only the direction of the first move on the grid.
+ */
+class JunctionGraph {
+  private static final int NONE = -1;
+
+  private final Maze maze;
+  private final int cols;
+  // nodes
+  private int nodeCount;
+  private int[] nodeCell;
+  private final int[] nodeOfCell;
+  // edges in compressed form: edges of node n are edgeTarget/edgeCost/edgeDirection[edgeStart[n]..edgeStart[n+1])
+  private int[] edgeStart;
+  private int[] edgeTarget;
+  private int[] edgeCost;
+  // the direction of the first move from the node along the edge
+  private byte[] edgeDirection;
+  private int edgeCount;
+  // corridors, the end nodes, length and the directions of the first move from both ends into the corridor
+  private int corridorCount;
+  private int[] corridorEnd0;
+  private int[] corridorEnd1;
+  private int[] corridorLength;
+  private byte[] corridorDirection0;
+  private byte[] corridorDirection1;
+  // corridor cells, the corridor, the distance to the first end and the directions towards both ends
+  private final int[] corridorOfCell;
+  private final int[] offsetOfCell;
+  private final byte[] towardsEnd0;
+  private final byte[] towardsEnd1;
+
+  // query buffers, the extra node is the destination of the query
+  private final int[] gCost;
+  private final byte[] firstDirection;
+  private final int[] seenStamp;
+  private final int[] closedStamp;
+  private final IndexedHeap openList;
+  private int generation;
+  private int expandedNodes;
+
+  /**
+   * Builds the junction graph of the maze.
+   *
+   * @param maze the maze to build the graph for.
+   */
+  JunctionGraph(Maze maze) {
+    this.maze = maze;
+    this.cols = maze.numCols();
+    int cells = maze.numCells();
+    this.nodeOfCell = new int[cells];
+    this.corridorOfCell = new int[cells];
+    this.offsetOfCell = new int[cells];
+    this.towardsEnd0 = new byte[cells];
+    this.towardsEnd1 = new byte[cells];
+    Arrays.fill(this.nodeOfCell, NONE);
+    Arrays.fill(this.corridorOfCell, NONE);
+    this.build();
+    int nodes = this.nodeCount + 1;
+    this.gCost = new int[nodes];
+    this.firstDirection = new byte[nodes];
+    this.seenStamp = new int[nodes];
+    this.closedStamp = new int[nodes];
+    this.openList = new IndexedHeap(nodes);
+    this.generation = 0;
+    this.expandedNodes = 0;
+  }
+
+  /**
+   * Returns the number of junctions and dead ends in the graph.
+   *
+   * @return the number of nodes.
+   */
+  int numNodes() {
+    return this.nodeCount;
+  }
+
+  /**
+   * Returns the number of nodes expanded by the last query.
+   *
+   * @return the number of expanded nodes.
+   */
+  int getExpandedNodes() {
+    return this.expandedNodes;
+  }
+
+  /**
+   * Returns the direction to keep going along the corridor for an object that entered the cell in the
+   * specified direction. Objects on junctions, dead ends and cells they did not enter along the corridor
+   * have to decide on their own.
+   *
+   * @param cell      the cell index.
+   * @param direction the direction the object moved in to enter the cell.
+   * @return the direction leading further along the corridor, or STOP if there is no single such direction.
+   */
+  CommonField.Direction continueCorridor(int cell, CommonField.Direction direction) {
+    if (this.corridorOfCell[cell] == NONE) {
+      return CommonField.Direction.STOP;
+    }
+    CommonField.Direction back = direction.opposite();
+    CommonField.Direction end0 = PathFinder.DIRECTIONS[this.towardsEnd0[cell]];
+    CommonField.Direction end1 = PathFinder.DIRECTIONS[this.towardsEnd1[cell]];
+    if (back == end0) {
+      return end1;
+    } else if (back == end1) {
+      return end0;
+    }
+    return CommonField.Direction.STOP;
+  }
+
+  /**
+   * Finds the direction of the first move on a shortest path between two cells.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index, different from the start cell.
+   * @return the index of the direction in {@link PathFinder#DIRECTIONS}, or -1 if the destination is not reachable.
+   */
+  int firstDirection(int start, int destination) {
+    this.expandedNodes = 0;
+    if (!this.maze.isWalkable(start) || !this.maze.isWalkable(destination)) {
+      return NONE;
+    }
+    this.generation++;
+    this.openList.clear();
+    int goal = this.nodeCount;
+    int startCorridor = this.corridorOfCell[start];
+    int destinationCorridor = this.corridorOfCell[destination];
+    if (startCorridor == NONE) {
+      open(this.nodeOfCell[start], 0, NONE, destination);
+    } else {
+      open(this.corridorEnd0[startCorridor], this.offsetOfCell[start], this.towardsEnd0[start], destination);
+      open(this.corridorEnd1[startCorridor], this.corridorLength[startCorridor] - this.offsetOfCell[start],
+        this.towardsEnd1[start], destination);
+      if (startCorridor == destinationCorridor) {
+        // straight along the shared corridor
+        int along = this.offsetOfCell[destination] - this.offsetOfCell[start];
+        open(goal, Math.abs(along), along < 0 ? this.towardsEnd0[start] : this.towardsEnd1[start], destination);
+      }
+    }
+    while (!this.openList.isEmpty()) {
+      int node = this.openList.poll();
+      this.closedStamp[node] = this.generation;
+      if (node == goal) {
+        return this.firstDirection[goal];
+      }
+      this.expandedNodes++;
+      int g = this.gCost[node];
+      int first = this.firstDirection[node];
+      for (int e = this.edgeStart[node]; e < this.edgeStart[node + 1]; e++) {
+        open(this.edgeTarget[e], g + this.edgeCost[e], first == NONE ? this.edgeDirection[e] : first, destination);
+      }
+      // connect the destination
+      if (destinationCorridor == NONE) {
+        if (this.nodeOfCell[destination] == node) {
+          open(goal, g, first, destination);
+        }
+      } else {
+        if (this.corridorEnd0[destinationCorridor] == node) {
+          open(goal, g + this.offsetOfCell[destination],
+            first == NONE ? this.corridorDirection0[destinationCorridor] : first, destination);
+        }
+        if (this.corridorEnd1[destinationCorridor] == node) {
+          open(goal, g + this.corridorLength[destinationCorridor] - this.offsetOfCell[destination],
+            first == NONE ? this.corridorDirection1[destinationCorridor] : first, destination);
+        }
+      }
+    }
+    return NONE;
+  }
+
+  /**
+   * Adds the node to the open list or lowers its cost.
+   *
+   * @param node        the node, or the destination node.
+   * @param cost        the walking distance from the start.
+   * @param direction   the direction of the first move on the way to the node.
+   * @param destination the destination cell index.
+   */
+  private void open(int node, int cost, int direction, int destination) {
+    if (this.closedStamp[node] == this.generation) {
+      return;
+    }
+    if (this.seenStamp[node] != this.generation || cost < this.gCost[node]) {
+      this.seenStamp[node] = this.generation;
+      this.gCost[node] = cost;
+      this.firstDirection[node] = (byte) direction;
+      int h = node == this.nodeCount ? 0 : manhattanDistance(this.nodeCell[node], destination);
+      this.openList.insertOrUpdate(node, cost + h, h);
+    }
+  }
+
+  private int manhattanDistance(int a, int b) {
+    return Math.abs(a / this.cols - b / this.cols) + Math.abs(a % this.cols - b % this.cols);
+  }
+
+  private int neighbor(int cell, int direction) {
+    return cell + PathFinder.DIRECTIONS[direction].deltaRow() * this.cols + PathFinder.DIRECTIONS[direction].deltaCol();
+  }
+
+  private int directionTo(int cell, int next) {
+    for (int d = 0; d < PathFinder.DIRECTIONS.length; d++) {
+      if (neighbor(cell, d) == next) {
+        return d;
+      }
+    }
+    return NONE;
+  }
+
+  private int walkableNeighbors(int cell) {
+    int count = 0;
+    for (int d = 0; d < PathFinder.DIRECTIONS.length; d++) {
+      if (this.maze.isWalkable(neighbor(cell, d))) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private void build() {
+    int cells = this.maze.numCells();
+    this.nodeCell = new int[64];
+    this.edgeTarget = new int[64];
+    this.edgeCost = new int[64];
+    this.edgeDirection = new byte[64];
+    this.edgeStart = new int[65];
+    this.corridorEnd0 = new int[16];
+    this.corridorEnd1 = new int[16];
+    this.corridorLength = new int[16];
+    this.corridorDirection0 = new byte[16];
+    this.corridorDirection1 = new byte[16];
+    for (int cell = 0; cell < cells; cell++) {
+      if (this.maze.isWalkable(cell) && walkableNeighbors(cell) != 2) {
+        addNode(cell);
+      }
+    }
+    int[] corridorCells = new int[cells];
+    int walked = 0;
+    while (true) {
+      // nodes are walked in order, so the edges of every node end up next to each other
+      for (; walked < this.nodeCount; walked++) {
+        this.edgeStart[walked] = this.edgeCount;
+        for (int d = 0; d < PathFinder.DIRECTIONS.length; d++) {
+          if (this.maze.isWalkable(neighbor(this.nodeCell[walked], d))) {
+            walkCorridor(walked, d, corridorCells);
+          }
+        }
+      }
+      // a closed loop of corridor cells has no node to be walked from
+      int loopCell = findUncoveredCorridorCell();
+      if (loopCell == NONE) {
+        break;
+      }
+      addNode(loopCell);
+    }
+    this.edgeStart[this.nodeCount] = this.edgeCount;
+  }
+
+  private int findUncoveredCorridorCell() {
+    for (int cell = 0; cell < this.maze.numCells(); cell++) {
+      if (this.maze.isWalkable(cell) && this.nodeOfCell[cell] == NONE && this.corridorOfCell[cell] == NONE) {
+        return cell;
+      }
+    }
+    return NONE;
+  }
+
+  private void addNode(int cell) {
+    if (this.nodeCount == this.nodeCell.length) {
+      this.nodeCell = Arrays.copyOf(this.nodeCell, 2 * this.nodeCount);
+      this.edgeStart = Arrays.copyOf(this.edgeStart, 2 * this.nodeCount + 1);
+    }
+    this.nodeCell[this.nodeCount] = cell;
+    this.nodeOfCell[cell] = this.nodeCount++;
+  }
+
+  /**
+   * Walks the corridor leaving the node in the specified direction up to the next node and adds the edge.
+   * The corridor cells are labeled on the first of the two walks over the corridor.
+   *
+   * @param node          the node the corridor starts at.
+   * @param direction     the index of the direction the corridor leaves the node in.
+   * @param corridorCells the buffer for the cells of the corridor.
+   */
+  private void walkCorridor(int node, int direction, int[] corridorCells) {
+    int length = 0;
+    int cell = this.nodeCell[node];
+    int heading = direction;
+    while (true) {
+      cell = neighbor(cell, heading);
+      length++;
+      if (this.nodeOfCell[cell] != NONE) {
+        break;
+      }
+      corridorCells[length - 1] = cell;
+      // leave the corridor cell by the other side than it was entered
+      int back = (heading + 2) % PathFinder.DIRECTIONS.length;
+      for (int d = 0; d < PathFinder.DIRECTIONS.length; d++) {
+        if (d != back && this.maze.isWalkable(neighbor(cell, d))) {
+          heading = d;
+          break;
+        }
+      }
+    }
+    addEdge(this.nodeOfCell[cell], length, direction);
+    if (length == 1 || this.corridorOfCell[corridorCells[0]] != NONE) {
+      return;
+    }
+    int corridor = addCorridor(node, this.nodeOfCell[cell], length, direction, (heading + 2) % PathFinder.DIRECTIONS.length);
+    // label the cells, the way back to the first end is the opposite of the way the cell was entered
+    for (int i = 0; i < length - 1; i++) {
+      int corridorCell = corridorCells[i];
+      int next = i + 1 < length - 1 ? corridorCells[i + 1] : cell;
+      int previous = i > 0 ? corridorCells[i - 1] : this.nodeCell[node];
+      this.corridorOfCell[corridorCell] = corridor;
+      this.offsetOfCell[corridorCell] = i + 1;
+      this.towardsEnd0[corridorCell] = (byte) directionTo(corridorCell, previous);
+      this.towardsEnd1[corridorCell] = (byte) directionTo(corridorCell, next);
+    }
+  }
+
+  private void addEdge(int target, int cost, int direction) {
+    if (this.edgeCount == this.edgeTarget.length) {
+      this.edgeTarget = Arrays.copyOf(this.edgeTarget, 2 * this.edgeCount);
+      this.edgeCost = Arrays.copyOf(this.edgeCost, 2 * this.edgeCount);
+      this.edgeDirection = Arrays.copyOf(this.edgeDirection, 2 * this.edgeCount);
+    }
+    this.edgeTarget[this.edgeCount] = target;
+    this.edgeCost[this.edgeCount] = cost;
+    this.edgeDirection[this.edgeCount++] = (byte) direction;
+  }
+
+  private int addCorridor(int end0, int end1, int length, int direction0, int direction1) {
+    if (this.corridorCount == this.corridorLength.length) {
+      int capacity = 2 * this.corridorCount;
+      this.corridorEnd0 = Arrays.copyOf(this.corridorEnd0, capacity);
+      this.corridorEnd1 = Arrays.copyOf(this.corridorEnd1, capacity);
+      this.corridorLength = Arrays.copyOf(this.corridorLength, capacity);
+      this.corridorDirection0 = Arrays.copyOf(this.corridorDirection0, capacity);
+      this.corridorDirection1 = Arrays.copyOf(this.corridorDirection1, capacity);
+    }
+    this.corridorEnd0[this.corridorCount] = end0;
+    this.corridorEnd1[this.corridorCount] = end1;
+    this.corridorLength[this.corridorCount] = length;
+    this.corridorDirection0[this.corridorCount] = (byte) direction0;
+    this.corridorDirection1[this.corridorCount] = (byte) direction1;
+    return this.corridorCount++;
+  }
+}
@@ -0,0 +1,260 @@
+package src.game;
+
+import src.tool.common.CommonField;
+import src.tool.common.CommonMazeObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plans the shortest tour of Pacman that collects all keys and ends on the target.
+ * The walking distances between Pacman, the keys and the target are found by one breadth-first search from every
+ * point, the searches run in parallel on a {@link ForkJoinPool}. The order of the keys is then solved exactly by
+ * the Held-Karp dynamic program over subsets of keys for up to {@link #EXACT_LIMIT} keys. With more keys the order
+ * is built nearest key first and improved by reversing parts of it as long as the tour gets shorter.
+ */
+public class KeyCollectionPlanner {
+  /**
+   * The largest number of keys whose order is solved exactly.
+   */
+  public static final int EXACT_LIMIT = 16;
+  private static final int UNREACHABLE = -1;
+  private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+  private final Maze maze;
+  private final ForkJoinPool pool;
+  private int tourLength;
+
+  /**
+   * Constructs a planner for the specified maze running its searches on the common pool.
+   *
+   * @param maze the maze to plan in.
+   */
+  public KeyCollectionPlanner(Maze maze) {
+    this(maze, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a planner for the specified maze running its searches on the specified pool.
+   *
+   * @param maze the maze to plan in.
+   * @param pool the pool the searches run on.
+   */
+  public KeyCollectionPlanner(Maze maze, ForkJoinPool pool) {
+    this.maze = maze;
+    this.pool = pool;
+    this.tourLength = UNREACHABLE;
+  }
+
+  /**
+   * Returns the number of moves of the last planned tour.
+   *
+   * @return the number of moves, or -1 if no tour was found.
+   */
+  public int getTourLength() {
+    return this.tourLength;
+  }
+
+  /**
+   * Plans the tour from the current field of Pacman through the keys left in the maze to the target.
+   *
+   * @return the cell indices of the keys in the order they are collected followed by the cell of the target,
+   * or null if Pacman, the target or a key is missing or cannot be reached.
+   */
+  public int[] planTour() {
+    this.tourLength = UNREACHABLE;
+    PacmanObject pacman = this.maze.getPacman();
+    CommonMazeObject target = this.maze.getTarget();
+    if (pacman == null || pacman.getField() == null || target == null || target.getField() == null) {
+      return null;
+    }
+    List<CommonMazeObject> keys = this.maze.getKeys();
+    // point 0 is Pacman, the keys follow and the target is the last point
+    int[] points = new int[keys.size() + 2];
+    points[0] = this.maze.indexOf(pacman.getField());
+    for (int i = 0; i < keys.size(); i++) {
+      CommonField field = keys.get(i).getField();
+      if (field == null) {
+        return null;
+      }
+      points[i + 1] = this.maze.indexOf(field);
+    }
+    points[points.length - 1] = this.maze.indexOf(target.getField());
+    for (int point : points) {
+      if (!this.maze.isReachable(points[0], point)) {
+        return null;
+      }
+    }
+    int[][] distances = new int[points.length][];
+    this.pool.invoke(new DistanceTask(this.maze.getNeighbors(), points, distances, 0, points.length));
+    int[] order = keys.size() <= EXACT_LIMIT ? exactOrder(distances) : approximateOrder(distances);
+    int[] tour = new int[order.length + 1];
+    int length = 0;
+    int previous = 0;
+    for (int i = 0; i < order.length; i++) {
+      tour[i] = points[order[i]];
+      length += distances[previous][order[i]];
+      previous = order[i];
+    }
+    tour[order.length] = points[points.length - 1];
+    this.tourLength = length + distances[previous][points.length - 1];
+    return tour;
+  }
+
+  /**
+   * Solves the order of the keys with the Held-Karp dynamic program. The cost of a subset of keys ending in a key
+   * is the length of the shortest walk from Pacman through all keys of the subset.
+   *
+   * @param distances the walking distances between the points.
+   * @return the points of the keys in the order they are collected.
+   */
+  private static int[] exactOrder(int[][] distances) {
+    int keys = distances.length - 2;
+    int target = keys + 1;
+    if (keys == 0) {
+      return new int[0];
+    }
+    int subsets = 1 << keys;
+    // cost[subset * keys + last], the keys are numbered from 0 here and are points 1 to keys
+    int[] cost = new int[subsets * keys];
+    Arrays.fill(cost, INFINITY);
+    for (int last = 0; last < keys; last++) {
+      cost[(1 << last) * keys + last] = distances[0][last + 1];
+    }
+    int full = subsets - 1;
+    for (int subset = 1; subset < subsets; subset++) {
+      // only walk over the keys in the subset and the keys outside of it
+      for (int lastBits = subset; lastBits != 0; lastBits &= lastBits - 1) {
+        int last = Integer.numberOfTrailingZeros(lastBits);
+        int current = cost[subset * keys + last];
+        if (current >= INFINITY) {
+          continue;
+        }
+        int[] fromLast = distances[last + 1];
+        for (int nextBits = full & ~subset; nextBits != 0; nextBits &= nextBits - 1) {
+          int next = Integer.numberOfTrailingZeros(nextBits);
+          int index = (subset | (1 << next)) * keys + next;
+          int extended = current + fromLast[next + 1];
+          if (extended < cost[index]) {
+            cost[index] = extended;
+          }
+        }
+      }
+    }
+    // close the walk on the target and follow the best choices back
+    int last = 0;
+    for (int candidate = 1; candidate < keys; candidate++) {
+      if (cost[full * keys + candidate] + distances[candidate + 1][target]
+        < cost[full * keys + last] + distances[last + 1][target]) {
+        last = candidate;
+      }
+    }
+    int[] order = new int[keys];
+    int subset = full;
+    for (int position = keys - 1; position >= 0; position--) {
+      order[position] = last + 1;
+      int remaining = subset & ~(1 << last);
+      if (remaining != 0) {
+        int previous = -1;
+        for (int candidate = 0; candidate < keys; candidate++) {
+          if ((remaining & (1 << candidate)) != 0
+            && cost[remaining * keys + candidate] + distances[candidate + 1][last + 1] == cost[subset * keys + last]) {
+            previous = candidate;
+            break;
+          }
+        }
+        last = previous;
+      }
+      subset = remaining;
+    }
+    return order;
+  }
+
+  /**
+   * Builds the order of the keys nearest key first and improves it by reversing parts of it while that shortens
+   * the walk from Pacman through the keys to the target.
+   *
+   * @param distances the walking distances between the points.
+   * @return the points of the keys in the order they are collected.
+   */
+  private static int[] approximateOrder(int[][] distances) {
+    int keys = distances.length - 2;
+    int target = keys + 1;
+    // the walk with Pacman in front and the target at the end, only the keys in between move
+    int[] walk = new int[keys + 2];
+    boolean[] visited = new boolean[keys + 2];
+    walk[0] = 0;
+    for (int position = 1; position <= keys; position++) {
+      int from = walk[position - 1];
+      int nearest = -1;
+      for (int key = 1; key <= keys; key++) {
+        if (!visited[key] && (nearest < 0 || distances[from][key] < distances[from][nearest])) {
+          nearest = key;
+        }
+      }
+      visited[nearest] = true;
+      walk[position] = nearest;
+    }
+    walk[keys + 1] = target;
+    boolean improved = true;
+    while (improved) {
+      improved = false;
+      for (int i = 1; i < keys; i++) {
+        for (int j = i + 1; j <= keys; j++) {
+          // reversing walk[i..j] replaces the edges before i and after j
+          int before = distances[walk[i - 1]][walk[i]] + distances[walk[j]][walk[j + 1]];
+          int after = distances[walk[i - 1]][walk[j]] + distances[walk[i]][walk[j + 1]];
+          if (after < before) {
+            for (int a = i, b = j; a < b; a++, b--) {
+              int swap = walk[a];
+              walk[a] = walk[b];
+              walk[b] = swap;
+            }
+            improved = true;
+          }
+        }
+      }
+    }
+    return Arrays.copyOfRange(walk, 1, keys + 1);
+  }
+
+  /**
+   * Runs the breadth-first searches from a range of the points, splitting it in halves until one point is left.
+   */
+  private class DistanceTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final NeighborTable neighbors;
+    private final int[] points;
+    private final int[][] distances;
+    private final int from;
+    private final int to;
+
+    DistanceTask(NeighborTable neighbors, int[] points, int[][] distances, int from, int to) {
+      this.neighbors = neighbors;
+      this.points = points;
+      this.distances = distances;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from > 1) {
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new DistanceTask(this.neighbors, this.points, this.distances, this.from, middle),
+          new DistanceTask(this.neighbors, this.points, this.distances, middle, this.to));
+        return;
+      }
+      int[] cellDistance = new int[maze.numCells()];
+      int[] queue = new int[maze.numCells()];
+      this.neighbors.distancesFrom(this.points[this.from], cellDistance, queue);
+      int[] row = new int[this.points.length];
+      for (int i = 0; i < this.points.length; i++) {
+        row[i] = cellDistance[this.points[i]];
+      }
+      this.distances[this.from] = row;
+    }
+  }
+}
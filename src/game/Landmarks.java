@@ -0,0 +1,172 @@
+package src.game;
+
+import java.util.Arrays;
+
+/**
+ * Landmark cells of a maze with the walking distance from every landmark to every cell, for the ALT heuristic
+ * (A*, landmarks and the triangle inequality).
+ * For any landmark L the triangle inequality gives |d(L, a) - d(L, b)| &lt;= d(a, b), so the largest such
+ * difference over all landmarks is a lower bound of the walking distance that stays close to it in winding mazes,
+ * where the Manhattan distance is far too optimistic.
+ * The landmarks are picked one by one as the walkable cell farthest from all landmarks picked before.
+ * The distances are stored cell by cell, so the distances of all landmarks to one cell lie next to each other.
+ */
+class Landmarks {
+  static final int DEFAULT_COUNT = 8;
+  private static final int UNREACHABLE = -1;
+
+  private final int count;
+  // distance from landmark k to cell c at index c * count + k
+  private final int[] distances;
+  private final int[] landmarkCells;
+
+  /**
+   * Picks the landmarks of the maze and computes their distances.
+   *
+   * @param maze  the maze to pick the landmarks in.
+   * @param count the number of landmarks.
+   */
+  Landmarks(Maze maze, int count) {
+    int cells = maze.numCells();
+    this.count = count;
+    this.distances = new int[cells * count];
+    this.landmarkCells = new int[count];
+    Arrays.fill(this.distances, UNREACHABLE);
+    Arrays.fill(this.landmarkCells, -1);
+    ConnectedComponents components = maze.getComponents();
+    int[] quota = landmarkQuotas(maze, components, count);
+    NeighborTable neighbors = maze.getNeighbors();
+    int[] distance = new int[cells];
+    int[] queue = new int[cells];
+    // distance to the nearest landmark of the region picked so far
+    int[] nearest = new int[cells];
+    int k = 0;
+    for (int component = 0; component < quota.length; component++) {
+      if (quota[component] == 0) {
+        continue;
+      }
+      // start from the cell farthest from an arbitrary cell of the region, it lies on its border
+      int seed = 0;
+      while (components.componentOf(seed) != component) {
+        seed++;
+      }
+      neighbors.distancesFrom(seed, distance, queue);
+      System.arraycopy(distance, 0, nearest, 0, cells);
+      for (int picked = 0; picked < quota[component]; picked++, k++) {
+        int landmark = farthestCell(components, component, nearest);
+        this.landmarkCells[k] = landmark;
+        neighbors.distancesFrom(landmark, distance, queue);
+        for (int cell = 0; cell < cells; cell++) {
+          if (distance[cell] == UNREACHABLE) {
+            continue;
+          }
+          this.distances[cell * count + k] = distance[cell];
+          if (picked == 0 || distance[cell] < nearest[cell]) {
+            nearest[cell] = distance[cell];
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Splits the landmarks among the connected regions in proportion to their sizes, the remainder going to the
+   * largest regions. Regions too small for a landmark get none and fall back to the Manhattan distance.
+   *
+   * @param maze       the maze.
+   * @param components the connected regions of the maze.
+   * @param count      the number of landmarks.
+   * @return the number of landmarks of every region.
+   */
+  private static int[] landmarkQuotas(Maze maze, ConnectedComponents components, int count) {
+    int[] size = new int[components.numComponents()];
+    int total = 0;
+    for (int cell = 0; cell < maze.numCells(); cell++) {
+      int component = components.componentOf(cell);
+      if (component != ConnectedComponents.NO_COMPONENT) {
+        size[component]++;
+        total++;
+      }
+    }
+    int[] quota = new int[size.length];
+    long[] remainder = new long[size.length];
+    int assigned = 0;
+    for (int component = 0; component < size.length; component++) {
+      quota[component] = (int) ((long) count * size[component] / total);
+      remainder[component] = (long) count * size[component] % total;
+      assigned += quota[component];
+    }
+    while (assigned < count) {
+      // the region with the largest remainder that still has cells without a landmark
+      int next = -1;
+      for (int component = 0; component < size.length; component++) {
+        if (quota[component] < size[component] && (next < 0 || remainder[component] > remainder[next])) {
+          next = component;
+        }
+      }
+      if (next < 0) {
+        break;
+      }
+      quota[next]++;
+      remainder[next] = -1;
+      assigned++;
+    }
+    return quota;
+  }
+
+  /**
+   * Returns the number of landmarks.
+   *
+   * @return the number of landmarks.
+   */
+  int count() {
+    return this.count;
+  }
+
+  /**
+   * Returns the cell of the landmark.
+   *
+   * @param k the landmark number.
+   * @return the cell index of the landmark, or -1 if there was no cell left for it.
+   */
+  int landmarkCell(int k) {
+    return this.landmarkCells[k];
+  }
+
+  /**
+   * Returns a lower bound of the walking distance between two cells of the same connected region.
+   *
+   * @param a the first cell index.
+   * @param b the second cell index.
+   * @return the largest difference of the distances of both cells to any landmark.
+   */
+  int lowerBound(int a, int b) {
+    int baseA = a * this.count;
+    int baseB = b * this.count;
+    int bound = 0;
+    for (int k = 0; k < this.count; k++) {
+      int distanceA = this.distances[baseA + k];
+      int distanceB = this.distances[baseB + k];
+      if (distanceA == UNREACHABLE || distanceB == UNREACHABLE) {
+        continue;
+      }
+      int difference = Math.abs(distanceA - distanceB);
+      if (difference > bound) {
+        bound = difference;
+      }
+    }
+    return bound;
+  }
+
+  private static int farthestCell(ConnectedComponents components, int component, int[] nearest) {
+    int farthest = -1;
+    int farthestDistance = -1;
+    for (int cell = 0; cell < nearest.length; cell++) {
+      if (components.componentOf(cell) == component && nearest[cell] > farthestDistance) {
+        farthest = cell;
+        farthestDistance = nearest[cell];
+      }
+    }
+    return farthest;
+  }
+}
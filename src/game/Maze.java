@@ -1,12 +1,16 @@
 package src.game;
 
+import src.game.resources.Coordinate;
 import src.tool.common.CommonMaze;
 import src.tool.common.CommonField;
 import src.tool.common.CommonMazeObject;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents a Pacman maze.
@@ -16,13 +20,27 @@ import java.util.Map;
 public class Maze implements CommonMaze {
     int cols;
     int rows;
-    CommonField[][] fields;
+  // the cell types and objects of the fields, the fields handed out are views of it
+  private final MazeGrid grid;
+  private final CommonField[] views;
   List<CommonMazeObject> listOfGhosts;
   List<CommonMazeObject> listOfKeys;
   List<CommonMazeObject> listOfBoosts;
   PacmanObject pacman;
   TargetObject target;
   private Map<CommonMazeObject, PathField> initialObjectsLayout;
+  private PathFinder pathFinder;
+  private DistanceFieldCache distanceFields;
+  private HierarchicalGraph hierarchy;
+  private JunctionGraph junctionGraph;
+  private ConnectedComponents components;
+  private Landmarks landmarks;
+  private DistanceOracle distanceOracle;
+  private FlowField chaseField;
+  private Bitboard bitboard;
+  private NeighborTable neighbors;
+  private DangerField dangerField;
+  private SpaceTimePlanner spaceTimePlanner;
 
   /**
    * Constructs a new Maze with the specified number of columns and rows.
@@ -33,22 +51,49 @@ public class Maze implements CommonMaze {
   public Maze(int col, int row) {
       this.cols = col;
       this.rows = row;
-      this.fields = new CommonField[row][col];
+      this.grid = new MazeGrid(row * col);
+      this.views = new CommonField[row * col];
       this.listOfGhosts = new ArrayList<>();
       this.listOfKeys = new ArrayList<>();
       this.pacman = null;
       this.target = null;
       this.initialObjectsLayout = null;
+      this.pathFinder = null;
+      this.distanceFields = null;
+      this.hierarchy = null;
+      this.junctionGraph = null;
+      this.components = null;
+      this.landmarks = null;
+      this.distanceOracle = null;
+      this.chaseField = null;
+      this.bitboard = null;
+      this.neighbors = null;
+      this.dangerField = null;
+      this.spaceTimePlanner = null;
     }
 
   /**
-   * Sets the CommonField array representing the Maze.
+   * Returns the backing store of the fields of the Maze.
    *
-   * @param fields  the CommonField array representing the Maze.
+   * @return the backing store of the fields.
    */
-    public void setFields(CommonField[][] fields) {
-        this.fields = fields;
-    }
+  MazeGrid getGrid() {
+    return this.grid;
+  }
+
+  /**
+   * Turns the cell with the specified index into a path or a wall. Must only be called while the Maze is being
+   * built, before anything is derived from its walkable cells.
+   *
+   * @param index  the cell index.
+   * @param path   true to make the cell a path, false to make it a wall.
+   */
+  void setWalkable(int index, boolean path) {
+    this.grid.setType(index, path ? MazeGrid.PATH : MazeGrid.WALL);
+    // a view of the old type must not be handed out anymore
+    this.views[index] = null;
+    this.neighbors = null;
+  }
 
   /**
    * Returns the number of columns in the Maze.
@@ -79,12 +124,386 @@ public class Maze implements CommonMaze {
    */
     @Override
     public CommonField getField(int row, int col) {
-        if (row < 0 || row > this.numRows())
+        if (row < 0 || row >= this.numRows())
             return null;
-        if (col < 0 || col > this.numCols())
+        if (col < 0 || col >= this.numCols())
             return null;
-        return fields[row][col];
+        return this.fieldAt(this.indexOf(row, col));
+    }
+
+  /**
+   * Returns the number of cells in the Maze.
+   *
+   * @return the number of rows multiplied by the number of columns.
+   */
+  public int numCells() {
+    return this.rows * this.cols;
+  }
+
+  /**
+   * Returns the cell index of the specified field. Cells are numbered row by row.
+   *
+   * @param field  the field in the Maze.
+   * @return the cell index of the field.
+   */
+  public int indexOf(CommonField field) {
+    if (field instanceof PathField path && path.getMaze() == this) {
+      return path.index();
+    }
+    if (field instanceof WallField wall && wall.getMaze() == this) {
+      return wall.index();
+    }
+    return field.getCoordinate().getX() * this.cols + field.getCoordinate().getY();
+  }
+
+  /**
+   * Returns the cell index of the specified row and column. The index is the coordinate packed into a single
+   * int, usable as a primitive key within this Maze.
+   *
+   * @param row  the row coordinate.
+   * @param col  the column coordinate.
+   * @return the cell index.
+   */
+  public int indexOf(int row, int col) {
+    return row * this.cols + col;
+  }
+
+  /**
+   * Returns the coordinate of the cell with the specified index. The Maze hands out one coordinate per cell,
+   * so repeated calls neither allocate nor produce distinct instances.
+   *
+   * @param index  the cell index.
+   * @return the coordinate of the cell.
+   */
+  public Coordinate coordinateAt(int index) {
+    return this.fieldAt(index).getCoordinate();
+  }
+
+  /**
+   * Returns the field with the specified cell index. The view of the cell is created on first use, later calls
+   * return the same view.
+   *
+   * @param index  the cell index.
+   * @return the field with the specified cell index.
+   */
+  public CommonField fieldAt(int index) {
+    CommonField field = this.views[index];
+    if (field == null) {
+      field = this.grid.isPath(index) ? new PathField(this, index) : new WallField(this, index);
+      this.views[index] = field;
     }
+    return field;
+  }
+
+  /**
+   * Checks if the cell with the specified index exists and can be walked on.
+   *
+   * @param index  the cell index.
+   * @return true if the cell is a path field, false if it is a wall or out of bounds.
+   */
+  public boolean isWalkable(int index) {
+    if (index < 0 || index >= this.numCells()) {
+      return false;
+    }
+    return this.grid.isPath(index);
+  }
+
+  /**
+   * Labels the connected regions of walkable cells of the Maze. Must be called again whenever a field of the
+   * Maze changes its walkability.
+   */
+  public void labelComponents() {
+    this.components = new ConnectedComponents(this);
+  }
+
+  /**
+   * Returns the connected regions of the Maze. The regions are labeled if they have not been labeled yet.
+   *
+   * @return the connected regions of the Maze.
+   */
+  ConnectedComponents getComponents() {
+    if (this.components == null) {
+      this.labelComponents();
+    }
+    return this.components;
+  }
+
+  /**
+   * Checks if a cell can be reached from another cell. Runs in constant time, without any search.
+   *
+   * @param from  the cell index to start from.
+   * @param to    the cell index to reach.
+   * @return true if both cells are walkable and lie in the same connected region, false otherwise.
+   */
+  public boolean isReachable(int from, int to) {
+    return this.isWalkable(from) && this.isWalkable(to) && this.getComponents().connected(from, to);
+  }
+
+  /**
+   * Returns the keys and the target that Pacman cannot reach from his field.
+   *
+   * @return the list of unreachable keys and target, empty if there is no Pacman.
+   */
+  public List<CommonMazeObject> getUnreachableObjects() {
+    List<CommonMazeObject> unreachable = new ArrayList<>();
+    if (this.pacman == null || this.pacman.getField() == null) {
+      return unreachable;
+    }
+    int start = this.indexOf(this.pacman.getField());
+    List<CommonMazeObject> goals = new ArrayList<>(this.listOfKeys);
+    goals.add(this.target);
+    for (CommonMazeObject goal : goals) {
+      if (goal != null && goal.getField() != null && !this.isReachable(start, this.indexOf(goal.getField()))) {
+        unreachable.add(goal);
+      }
+    }
+    return unreachable;
+  }
+
+  /**
+   * Computes the walkable neighbors of every cell of the Maze, read by the moves of the objects and by the
+   * searches.
+   */
+  public void buildNeighborTable() {
+    this.neighbors = new NeighborTable(this);
+  }
+
+  /**
+   * Returns the directions in which the cell with the specified index can be left.
+   *
+   * @param index  the cell index of a walkable cell.
+   * @return a mask with the bit {@code 1 << direction.ordinal()} set for every direction whose neighbor is walkable.
+   */
+  public int walkableNeighbors(int index) {
+    return this.getNeighbors().mask(index);
+  }
+
+  /**
+   * Returns the walkable neighbors of every cell of the Maze. The table is computed if it has not been yet.
+   *
+   * @return the neighbor table of the Maze.
+   */
+  NeighborTable getNeighbors() {
+    if (this.neighbors == null) {
+      this.buildNeighborTable();
+    }
+    return this.neighbors;
+  }
+
+  /**
+   * Builds the bitboard view of the walkable cells of the Maze. From then on the distance fields are computed
+   * a word of cells at a time.
+   */
+  public void buildBitboard() {
+    this.bitboard = new Bitboard(this);
+    this.invalidateDistanceFields();
+  }
+
+  /**
+   * Returns the bitboard view of the Maze.
+   *
+   * @return the bitboard view, or null if it has not been built.
+   */
+  Bitboard getBitboard() {
+    return this.bitboard;
+  }
+
+  /**
+   * Returns the path finder of the Maze. The path finder is created on first use and keeps its buffers
+   * between queries.
+   *
+   * @return the path finder of the Maze.
+   */
+  public PathFinder getPathFinder() {
+    if (this.pathFinder == null) {
+      this.pathFinder = new PathFinder(this);
+    }
+    return this.pathFinder;
+  }
+
+  /**
+   * Returns the cache of distance fields of the Maze. The cache is created on first use.
+   *
+   * @return the cache of distance fields of the Maze.
+   */
+  DistanceFieldCache getDistanceFields() {
+    if (this.distanceFields == null) {
+      this.distanceFields = new DistanceFieldCache(this);
+    }
+    return this.distanceFields;
+  }
+
+  /**
+   * Returns the walking distance from the cell to every cell of the Maze.
+   *
+   * @param index the cell index.
+   * @return a new array indexed by cell, -1 for cells that cannot be reached.
+   */
+  public int[] distancesFrom(int index) {
+    int[] distances = this.getDistanceFields().distancesTo(index);
+    return Arrays.copyOf(distances, distances.length);
+  }
+
+  /**
+   * Returns the danger field of the Maze used by the safe search. The field is created on first use and
+   * follows the ghosts whenever it is updated.
+   *
+   * @return the danger field of the Maze.
+   */
+  DangerField getDangerField() {
+    if (this.dangerField == null) {
+      this.dangerField = new DangerField(this);
+    }
+    return this.dangerField;
+  }
+
+  /**
+   * Returns the space-time planner of the Maze that coordinates the moves of the ghosts. The planner is created
+   * on first use.
+   *
+   * @return the space-time planner of the Maze.
+   */
+  public SpaceTimePlanner getSpaceTimePlanner() {
+    if (this.spaceTimePlanner == null) {
+      this.spaceTimePlanner = new SpaceTimePlanner(this);
+    }
+    return this.spaceTimePlanner;
+  }
+
+  /**
+   * Drops all cached distance fields. Must be called whenever a field of the Maze changes its walkability.
+   */
+  public void invalidateDistanceFields() {
+    if (this.distanceFields != null) {
+      this.distanceFields.invalidate();
+    }
+  }
+
+  /**
+   * Builds the hierarchical graph of the Maze used by the {@link src.game.resources.SearchMode#HIERARCHICAL}
+   * path finding.
+   *
+   * @param clusterSize  the width and height of the clusters in cells.
+   */
+  public void buildHierarchy(int clusterSize) {
+    this.hierarchy = new HierarchicalGraph(this, clusterSize);
+  }
+
+  /**
+   * Returns the hierarchical graph of the Maze. The graph is built with the default cluster size if it
+   * has not been built yet.
+   *
+   * @return the hierarchical graph of the Maze.
+   */
+  HierarchicalGraph getHierarchy() {
+    if (this.hierarchy == null) {
+      this.buildHierarchy(HierarchicalGraph.DEFAULT_CLUSTER_SIZE);
+    }
+    return this.hierarchy;
+  }
+
+  /**
+   * Picks the landmarks of the Maze and computes their distances to all cells for the
+   * {@link src.game.resources.SearchMode#ALT} path finding.
+   *
+   * @param count  the number of landmarks.
+   */
+  public void selectLandmarks(int count) {
+    this.landmarks = new Landmarks(this, count);
+  }
+
+  /**
+   * Returns the landmarks of the Maze. The default number of landmarks is picked if they have not been
+   * picked yet.
+   *
+   * @return the landmarks of the Maze.
+   */
+  Landmarks getLandmarks() {
+    if (this.landmarks == null) {
+      this.selectLandmarks(Landmarks.DEFAULT_COUNT);
+    }
+    return this.landmarks;
+  }
+
+  /**
+   * Builds the all-pairs distance table of the Maze on the common pool, unless the Maze has more walkable
+   * cells than the budget.
+   *
+   * @param cellBudget  the maximum number of walkable cells the table is built for.
+   * @return true if the table has been built, false if the Maze is over the budget.
+   */
+  public boolean buildDistanceOracle(int cellBudget) {
+    if (!DistanceOracle.fits(this, cellBudget)) {
+      return false;
+    }
+    this.distanceOracle = new DistanceOracle(this, ForkJoinPool.commonPool());
+    return true;
+  }
+
+  /**
+   * Returns the all-pairs distance table of the Maze.
+   *
+   * @return the distance table, or null if it has not been built.
+   */
+  public DistanceOracle getDistanceOracle() {
+    return this.distanceOracle;
+  }
+
+  /**
+   * Builds the junction graph of the Maze used by the {@link src.game.resources.SearchMode#JUNCTION_GRAPH}
+   * path finding and by the ghosts to follow corridors.
+   */
+  public void buildJunctionGraph() {
+    this.junctionGraph = new JunctionGraph(this);
+  }
+
+  /**
+   * Checks if the junction graph of the Maze has been built.
+   *
+   * @return true if the junction graph has been built, false otherwise.
+   */
+  boolean hasJunctionGraph() {
+    return this.junctionGraph != null;
+  }
+
+  /**
+   * Returns the junction graph of the Maze. The graph is built if it has not been built yet.
+   *
+   * @return the junction graph of the Maze.
+   */
+  JunctionGraph getJunctionGraph() {
+    if (this.junctionGraph == null) {
+      this.buildJunctionGraph();
+    }
+    return this.junctionGraph;
+  }
+
+  /**
+   * Returns the flow field leading to Pacman shared by all chasing ghosts. The field is created on first use.
+   *
+   * @return the flow field leading to Pacman.
+   */
+  FlowField getChaseField() {
+    if (this.chaseField == null) {
+      this.chaseField = new FlowField(this);
+    }
+    return this.chaseField;
+  }
+
+  /**
+   * Recomputes the flow field leading to Pacman if Pacman has moved since it was computed.
+   */
+  public void updateChaseField() {
+    // chasing ghosts look their moves up in the distance table instead
+    if (this.pacman == null || this.pacman.getField() == null || this.distanceOracle != null) {
+      return;
+    }
+    int pacmanCell = this.indexOf(this.pacman.getField());
+    FlowField field = this.getChaseField();
+    if (field.getSource() != pacmanCell) {
+      field.compute(pacmanCell);
+    }
+  }
 
   /**
    * Returns a copy of the list of ghosts in the Maze.
@@ -146,14 +565,19 @@ public class Maze implements CommonMaze {
   }
 
   /**
-   * Sets objects' layout of the Maze to the specified layout.
+   * Sets objects' layout of the Maze to the specified layout. Only the fields holding objects before or after
+   * the change are visited, and only those whose objects changed notify their observers.
    *
    * @param objectsLayout  the objects' layout to set in the Maze.
    */
   @Override
   public void setObjectLayoutTo(Map<CommonMazeObject, PathField> objectsLayout) {
-    // clear all fields
-    clearAllFields();
+    // remember and clear the occupied fields
+    Map<Integer, List<CommonMazeObject>> dirty = new LinkedHashMap<>();
+    for (int cell : this.grid.occupiedCells()) {
+      dirty.put(cell, this.grid.objects(cell));
+      this.grid.clear(cell);
+    }
     // clear all lists and objects but pacman
     this.listOfKeys.clear();
     this.listOfBoosts.clear();
@@ -163,7 +587,11 @@ public class Maze implements CommonMaze {
     for (Map.Entry<CommonMazeObject, PathField> entry : objectsLayout.entrySet()) {
       PathField field = entry.getValue();
       CommonMazeObject object = entry.getKey();
-      field.put(object);
+      if (object == null) {
+        continue;
+      }
+      field.place(object);
+      dirty.putIfAbsent(field.index(), List.of());
       // add objects to lists
       switch (object.getType()) {
         case GHOST -> this.listOfGhosts.add(object);
@@ -175,6 +603,13 @@ public class Maze implements CommonMaze {
         }
       }
     }
+    // notify the fields whose objects changed
+    for (Map.Entry<Integer, List<CommonMazeObject>> entry : dirty.entrySet()) {
+      int cell = entry.getKey();
+      if (!this.grid.objects(cell).equals(entry.getValue())) {
+        this.fieldAt(cell).notifyObservers();
+      }
+    }
   }
 
   /**
@@ -187,17 +622,6 @@ public class Maze implements CommonMaze {
     this.pacman.reset();
   }
 
-  /**
-   * Clears all fields in the Maze.
-   */
-  private void clearAllFields() {
-    for (int i = 0; i < this.numRows(); i++) {
-      for (int j = 0; j < this.numCols(); j++) {
-        this.fields[i][j].clearField();
-      }
-    }
-  }
-
   /**
    * Sets the list of ghosts in the Maze to the specified list.
    *
@@ -243,6 +667,15 @@ public class Maze implements CommonMaze {
     this.initialObjectsLayout = initialObjectsLayout;
   }
 
+  /**
+   * Returns the initial objects layout of the Maze.
+   *
+   * @return the initial objects layout, or null if it has not been set.
+   */
+  Map<CommonMazeObject, PathField> getInitialObjectsLayout() {
+    return this.initialObjectsLayout;
+  }
+
   /**
    * Sets the list of boosts in the Maze to the specified list.
    *
@@ -1,14 +1,24 @@
 package src.game;
 
+import src.game.resources.SearchMode;
 import src.tool.common.CommonMaze;
 import src.tool.common.CommonField;
 import src.tool.common.CommonMazeObject;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Represents the configuration for creating a Pacman maze.
@@ -16,12 +26,15 @@ import java.util.Map;
  */
 public class MazeConfigure {
   private static final int BORDER = 2;
+  // mazes with at least this many cells get the hierarchical path finding automatically
+  private static final int HIERARCHY_MIN_CELLS = 250_000;
+  // number of rows parsed by one task of the mapped loader
+  private static final int ROWS_PER_TASK = 256;
   boolean started;
   int rows;
   int cols;
   boolean errorFlag;
   int currentRow;
-  CommonField[][] fields;
   Maze maze;
   List<CommonMazeObject> listOfGhosts;
   List<CommonMazeObject> listOfKeys;
@@ -30,6 +43,10 @@ public class MazeConfigure {
   TargetObject target;
   boolean disableGhosts;
   Map<CommonMazeObject, PathField> initialObjectsLayout;
+  boolean hierarchicalPathFinding;
+  boolean junctionGraph;
+  int landmarkCount;
+  int distanceOracleBudget;
 
   private void initiateClass(){
     this.rows = 0;
@@ -44,6 +61,10 @@ public class MazeConfigure {
     this.target = null;
     this.initialObjectsLayout = new HashMap<>();
     this.disableGhosts = false;
+    this.hierarchicalPathFinding = false;
+    this.junctionGraph = false;
+    this.landmarkCount = 0;
+    this.distanceOracleBudget = 0;
   }
 
 
@@ -64,6 +85,48 @@ public class MazeConfigure {
     this.disableGhosts = disableGhosts;
   }
 
+  /**
+   * Enables building the hierarchical path finding graph when the maze is created.
+   * Mazes with a large number of cells use the hierarchical path finding even if this is not enabled, their
+   * graph is built on the first query.
+   *
+   * @param hierarchicalPathFinding true to build the graph for any maze, false otherwise
+   */
+  public void setHierarchicalPathFinding(boolean hierarchicalPathFinding) {
+    this.hierarchicalPathFinding = hierarchicalPathFinding;
+  }
+
+  /**
+   * Enables building the junction graph when the maze is created. The path finder of the maze then searches
+   * the graph and the ghosts follow the corridors without choosing a direction on every move.
+   *
+   * @param junctionGraph true to build the junction graph, false otherwise
+   */
+  public void setJunctionGraph(boolean junctionGraph) {
+    this.junctionGraph = junctionGraph;
+  }
+
+  /**
+   * Sets the number of landmarks picked when the maze is created. The path finder of the maze then uses
+   * the landmark (ALT) heuristic.
+   *
+   * @param landmarkCount the number of landmarks, 0 to pick none
+   */
+  public void setLandmarkCount(int landmarkCount) {
+    this.landmarkCount = landmarkCount;
+  }
+
+  /**
+   * Enables building the all-pairs distance table when the maze is created, for mazes with at most the
+   * specified number of walkable cells. The path finder and the chasing ghosts of the maze then look their
+   * moves up in the table.
+   *
+   * @param distanceOracleBudget the maximum number of walkable cells, 0 to never build the table
+   */
+  public void setDistanceOracleBudget(int distanceOracleBudget) {
+    this.distanceOracleBudget = distanceOracleBudget;
+  }
+
   /**
    * Starts reading the maze by specifying the number of rows and columns.
    *
@@ -74,31 +137,30 @@ public class MazeConfigure {
     this.rows = rows + BORDER;
     this.cols = cols + BORDER;
     this.started = true;
-    this.fields = new CommonField[rows + BORDER][cols + BORDER];
     this.maze = new Maze(this.cols, this.rows);
   }
 
   private PathField createPathField(int row, int col) {
-    PathField pathField = new PathField(row, col);
-    pathField.setMaze(this.maze);
-    fields[row][col] = pathField;
-    return pathField;
+    int cell = this.maze.indexOf(row, col);
+    this.maze.setWalkable(cell, true);
+    return (PathField) this.maze.fieldAt(cell);
   }
 
-  private void handleDotCase(int i) {
-    createPathField(this.currentRow, i + 1);
+  private void handleDotCase(int row, int col) {
+    // an empty path needs no view of its field until someone asks for it
+    this.maze.setWalkable(this.maze.indexOf(row, col), true);
   }
 
-  private void handleWallCase(int i) {
-    fields[this.currentRow][i + 1] = new WallField(this.currentRow, i + 1);
+  private void handleWallCase(int row, int col) {
+    this.maze.setWalkable(this.maze.indexOf(row, col), false);
   }
 
-  private boolean handlePacmanCase(int i) {
+  private boolean handlePacmanCase(int row, int col) {
     // if pacman is already placed, return false
     if (this.pacman != null) {
       return false;
     } else {
-      PathField pathField = createPathField(this.currentRow, i + 1);
+      PathField pathField = createPathField(row, col);
       this.pacman = new PacmanObject(pathField, this.listOfKeys, this.listOfBoosts);
       pathField.put(this.pacman);
       // put pacman into initialObjectsLayout
@@ -107,8 +169,8 @@ public class MazeConfigure {
     }
   }
 
-  private void handleGhostCase(int i) {
-    PathField pathField = createPathField(this.currentRow, i + 1);
+  private void handleGhostCase(int row, int col) {
+    PathField pathField = createPathField(row, col);
     GhostObject ghost = new GhostObject(pathField);
     pathField.put(ghost);
     listOfGhosts.add(ghost);
@@ -116,8 +178,8 @@ public class MazeConfigure {
     this.initialObjectsLayout.put(ghost,pathField);
   }
 
-  private void handleKeyCase(int i) {
-    PathField pathField = createPathField(this.currentRow, i + 1);
+  private void handleKeyCase(int row, int col) {
+    PathField pathField = createPathField(row, col);
     KeyObject key = new KeyObject(pathField);
     pathField.put(key);
     this.listOfKeys.add(key);
@@ -125,8 +187,8 @@ public class MazeConfigure {
     this.initialObjectsLayout.put(key,pathField);
   }
 
-  private void handleBoostCase(int i) {
-    PathField pathField = createPathField(this.currentRow, i + 1);
+  private void handleBoostCase(int row, int col) {
+    PathField pathField = createPathField(row, col);
     BoostObject boost = new BoostObject(pathField);
     pathField.put(boost);
     this.listOfBoosts.add(boost);
@@ -134,11 +196,11 @@ public class MazeConfigure {
     this.initialObjectsLayout.put(boost,pathField);
   }
 
-  private boolean handleTargetCase(int i) {
+  private boolean handleTargetCase(int row, int col) {
     if (this.target != null) {
       return false;
     } else {
-      PathField pathField = createPathField(this.currentRow, i + 1);
+      PathField pathField = createPathField(row, col);
       this.target = new TargetObject(pathField);
       pathField.put(this.target);
       // put target into initialObjectsLayout
@@ -165,42 +227,59 @@ public class MazeConfigure {
     this.currentRow++;
 
     for (int i = 0; i < line.length(); i++) {
-      switch (line.charAt(i)) {
-        case '.':
-          handleDotCase(i);
-          break;
-        case 'X':
-          handleWallCase(i);
-          break;
-        case 'S':
-          // if pacman is already placed, return false = error
-          if (!handlePacmanCase(i)) {
-            return false;
-          }
-          break;
-        case 'G':
-          if (this.disableGhosts) {
-            handleDotCase(i);
-            break;
-          }
-          handleGhostCase(i);
-          break;
-        case 'K':
-          handleKeyCase(i);
-          break;
-        case 'B':
-          handleBoostCase(i);
-          break;
-        case 'T':
-          // if target is already placed, return false = error
-          if (!handleTargetCase(i)){
-            return false;
-          }
+      if (!this.processCell(this.currentRow, i + 1, line.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Processes a cell of the maze.
+   *
+   * @param row  the row of the cell in the maze, including the border
+   * @param col  the column of the cell in the maze, including the border
+   * @param cell the character describing the cell
+   * @return true if the cell is processed successfully, false otherwise
+   */
+  private boolean processCell(int row, int col, char cell) {
+    switch (cell) {
+      case '.':
+        handleDotCase(row, col);
+        break;
+      case 'X':
+        handleWallCase(row, col);
+        break;
+      case 'S':
+        // if pacman is already placed, return false = error
+        if (!handlePacmanCase(row, col)) {
+          this.errorFlag = true;
+          return false;
+        }
+        break;
+      case 'G':
+        if (this.disableGhosts) {
+          handleDotCase(row, col);
           break;
-        default:
+        }
+        handleGhostCase(row, col);
+        break;
+      case 'K':
+        handleKeyCase(row, col);
+        break;
+      case 'B':
+        handleBoostCase(row, col);
+        break;
+      case 'T':
+        // if target is already placed, return false = error
+        if (!handleTargetCase(row, col)){
           this.errorFlag = true;
           return false;
-      }
+        }
+        break;
+      default:
+        this.errorFlag = true;
+        return false;
     }
     return true;
   }
@@ -258,6 +337,222 @@ public class MazeConfigure {
     }
   }
 
+  /**
+   * Loads the maze from a file in the text or the {@link BinaryMazeFormat binary} format. A text file is mapped
+   * into memory and its rows are parsed in parallel on the common pool straight into the cells of the maze. The
+   * objects are placed afterwards in the order of the file, so the maze is the same as the one loaded from a
+   * stream of the file. Files too large to be mapped at once are loaded as a stream.
+   *
+   * @param pathToMaze the path to the maze file
+   * @return the loaded maze, or null if an error occurred
+   */
+  public CommonMaze loadMaze(Path pathToMaze) {
+    try (FileChannel channel = FileChannel.open(pathToMaze, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        try (InputStream inputStream = Files.newInputStream(pathToMaze)) {
+          return this.loadMaze(inputStream);
+        }
+      }
+      ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      byte[] start = new byte[Math.min(content.limit(), 4)];
+      content.get(0, start);
+      if (BinaryMazeFormat.isBinary(start, start.length)) {
+        try (InputStream inputStream = Files.newInputStream(pathToMaze)) {
+          return this.loadBinaryMaze(inputStream);
+        }
+      }
+      return this.loadMaze(content);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * Loads the maze from an input stream in the {@link BinaryMazeFormat binary format}. The maze is checked the
+   * way a text maze is, and the numbers of objects must match the header.
+   *
+   * @param inputStream the input stream containing the binary maze
+   * @return the loaded maze, or null if an error occurred
+   */
+  public CommonMaze loadBinaryMaze(InputStream inputStream) {
+    try {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+      BinaryMazeFormat.Header header = BinaryMazeFormat.readHeader(in);
+      BinaryMazeFormat.CellReader cells = new BinaryMazeFormat.CellReader(in);
+      this.startReading(header.rows, header.cols);
+      for (int row = 1; row <= header.rows; row++) {
+        for (int col = 1; col <= header.cols; col++) {
+          char cell = cells.next();
+          if (cell == '.') {
+            handleDotCase(row, col);
+          } else if (cell != 'X' && !this.processCell(row, col, cell)) {
+            System.out.println("Invalid cell " + cell + " at (" + row + "," + col + ")");
+            return null;
+          }
+        }
+        this.currentRow = row;
+      }
+      int ghosts = this.disableGhosts ? 0 : header.count('G');
+      if (header.count('S') != (this.pacman == null ? 0 : 1) || header.count('T') != (this.target == null ? 0 : 1)
+        || ghosts != this.listOfGhosts.size() || header.count('K') != this.listOfKeys.size()
+        || header.count('B') != this.listOfBoosts.size()) {
+        System.out.println("Numbers of objects do not match the header of the maze");
+        return null;
+      }
+    } catch (IOException e) {
+      System.out.println("Invalid binary maze: " + e.getMessage());
+      return null;
+    }
+    return this.stopReading() ? this.createMaze() : null;
+  }
+
+  /**
+   * Loads the maze from the content of a file in memory.
+   *
+   * @param content the content of the maze file
+   * @return the loaded maze, or null if an error occurred
+   */
+  private CommonMaze loadMaze(ByteBuffer content) {
+    int headerEnd = lineEnd(content, 0);
+    String[] dimensions = lineAt(content, 0, headerEnd).split(" ");
+    int mazeRows;
+    int mazeCols;
+    try {
+      mazeRows = Integer.parseInt(dimensions[0]);
+      mazeCols = Integer.parseInt(dimensions[1]);
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+      System.out.println("Invalid format of maze dimensions");
+      return null;
+    }
+    // the cells of the rows must fit in the file and the maze with its border in an array
+    if (mazeRows <= 0 || mazeCols <= 0 || (long) mazeRows * mazeCols > content.limit()
+      || (mazeRows + 2L) * (mazeCols + 2L) > Integer.MAX_VALUE) {
+      System.out.println("Invalid maze dimensions " + mazeRows + "x" + mazeCols);
+      return null;
+    }
+    this.startReading(mazeRows, mazeCols);
+    // every row must have exactly the declared width, so the next row starts right after its line break
+    int[] rowStarts = new int[mazeRows];
+    int position = nextLine(content, headerEnd);
+    for (int row = 0; row < mazeRows; row++) {
+      if (position >= content.limit()) {
+        return null;
+      }
+      int end = position + mazeCols;
+      if (end > content.limit() || (end < content.limit() && !isLineBreak(content.get(end)))) {
+        System.out.println("Invalid format of this line: " + lineAt(content, position, lineEnd(content, position)));
+        return null;
+      }
+      rowStarts[row] = position;
+      position = nextLine(content, end);
+    }
+    // the walls and paths are parsed in parallel, the cells with objects are only collected
+    int[][] objectCells = new int[(mazeRows + ROWS_PER_TASK - 1) / ROWS_PER_TASK][];
+    ForkJoinPool.commonPool().invoke(new RowTask(content, rowStarts, objectCells, 0, objectCells.length));
+    for (int[] cells : objectCells) {
+      for (int cell : cells) {
+        int row = cell / this.cols;
+        int col = cell % this.cols;
+        int rowStart = rowStarts[row - 1];
+        if (!this.processCell(row, col, (char) (content.get(rowStart + col - 1) & 0xFF))) {
+          System.out.println("Invalid format of this line: " + lineAt(content, rowStart, rowStart + mazeCols));
+          return null;
+        }
+      }
+    }
+    this.currentRow = mazeRows;
+    // a complete maze may be followed by other data, as in the replay files, but not by another row
+    if (position < content.limit()) {
+      int end = lineEnd(content, position);
+      System.out.println("Invalid format of this line: " + lineAt(content, position, end));
+      if (end - position == mazeCols) {
+        this.errorFlag = true;
+      }
+    }
+    return this.stopReading() ? this.createMaze() : null;
+  }
+
+  private static boolean isLineBreak(byte character) {
+    return character == '\n' || character == '\r';
+  }
+
+  private static int lineEnd(ByteBuffer content, int from) {
+    int end = from;
+    while (end < content.limit() && !isLineBreak(content.get(end))) {
+      end++;
+    }
+    return end;
+  }
+
+  private static int nextLine(ByteBuffer content, int lineEnd) {
+    if (lineEnd + 1 < content.limit() && content.get(lineEnd) == '\r' && content.get(lineEnd + 1) == '\n') {
+      return lineEnd + 2;
+    }
+    return lineEnd + 1;
+  }
+
+  private static String lineAt(ByteBuffer content, int from, int to) {
+    byte[] line = new byte[to - from];
+    content.get(from, line);
+    return new String(line, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Parses a range of blocks of rows of the mapped maze file, splitting it in halves until one block is left.
+   * Walls and paths are written to the cells of the maze, the cells of any other character are collected in the
+   * order of the file and handled one by one after all blocks are parsed.
+   */
+  private class RowTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final ByteBuffer content;
+    private final int[] rowStarts;
+    private final int[][] objectCells;
+    private final int from;
+    private final int to;
+
+    RowTask(ByteBuffer content, int[] rowStarts, int[][] objectCells, int from, int to) {
+      this.content = content;
+      this.rowStarts = rowStarts;
+      this.objectCells = objectCells;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from > 1) {
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new RowTask(this.content, this.rowStarts, this.objectCells, this.from, middle),
+          new RowTask(this.content, this.rowStarts, this.objectCells, middle, this.to));
+        return;
+      }
+      ByteBuffer rowContent = this.content.duplicate();
+      MazeGrid grid = maze.getGrid();
+      int width = cols - BORDER;
+      int[] cells = new int[16];
+      int count = 0;
+      int lastRow = Math.min(this.rowStarts.length, (this.from + 1) * ROWS_PER_TASK);
+      for (int row = this.from * ROWS_PER_TASK; row < lastRow; row++) {
+        int rowStart = this.rowStarts[row];
+        // the first cell of the row, past the border
+        int cell = (row + 1) * cols + 1;
+        for (int i = 0; i < width; i++, cell++) {
+          byte character = rowContent.get(rowStart + i);
+          if (character == '.') {
+            grid.setType(cell, MazeGrid.PATH);
+          } else if (character != 'X') {
+            if (count == cells.length) {
+              cells = Arrays.copyOf(cells, 2 * count);
+            }
+            cells[count++] = cell;
+          }
+        }
+      }
+      this.objectCells[this.from] = Arrays.copyOf(cells, count);
+    }
+  }
+
   /**
    * Adds border wall to the maze.
    */
@@ -265,9 +560,9 @@ public class MazeConfigure {
     for (int i = 0; i < this.rows; i++) {
       for (int j = 0; j < this.cols; j++) {
         if (i == 0 || i == this.rows - 1) {
-          this.fields[i][j] = new WallField(i, j);
+          this.maze.setWalkable(i * this.cols + j, false);
         } else if (j == 0 || j == this.cols - 1) {
-          this.fields[i][j] = new WallField(i, j);
+          this.maze.setWalkable(i * this.cols + j, false);
         }
       }
     }
@@ -284,14 +579,50 @@ public class MazeConfigure {
 
     //create border wall
     this.addBorder();
-    //set fields
-    this.maze.setFields(this.fields);
     this.maze.setGhostList(this.listOfGhosts);
     this.maze.setListOfKeys(this.listOfKeys);
     this.maze.setPacman(this.pacman);
     this.maze.setTarget(this.target);
     this.maze.setInitialObjectsLayout(this.initialObjectsLayout);
     this.maze.setListOfBoosts(this.listOfBoosts);
+    //precompute the walkable neighbors of every cell for the moves and searches
+    this.maze.buildNeighborTable();
+    //mirror walls and objects in bit rows for word-parallel queries
+    this.maze.buildBitboard();
+    //label the connected regions, so unreachable destinations are rejected without a search
+    this.maze.labelComponents();
+    for (CommonMazeObject unreachable : this.maze.getUnreachableObjects()) {
+      CommonField field = unreachable.getField();
+      System.out.println("Unreachable " + unreachable.getType() + " at (" + field.getCoordinate().getX() + ","
+        + field.getCoordinate().getY() + ")");
+    }
+    //build the abstract graph for hierarchical path finding
+    if (this.hierarchicalPathFinding) {
+      this.maze.buildHierarchy(HierarchicalGraph.DEFAULT_CLUSTER_SIZE);
+      this.maze.getPathFinder().setMode(SearchMode.HIERARCHICAL);
+    } else if (this.rows * this.cols >= HIERARCHY_MIN_CELLS) {
+      //a large maze builds the graph on its first query, so loading it stays fast
+      this.maze.getPathFinder().setMode(SearchMode.HIERARCHICAL);
+    }
+    //precompute the distances from the landmarks
+    if (this.landmarkCount > 0) {
+      this.maze.selectLandmarks(this.landmarkCount);
+      this.maze.getPathFinder().setMode(SearchMode.ALT);
+    }
+    //precompute the distances between all pairs of cells
+    if (this.distanceOracleBudget > 0) {
+      if (this.maze.buildDistanceOracle(this.distanceOracleBudget)) {
+        this.maze.getPathFinder().setMode(SearchMode.DISTANCE_ORACLE);
+      } else {
+        System.out.println("Distance table not built, the maze has more than " + this.distanceOracleBudget
+          + " walkable cells");
+      }
+    }
+    //contract the corridors into the junction graph
+    if (this.junctionGraph) {
+      this.maze.buildJunctionGraph();
+      this.maze.getPathFinder().setMode(SearchMode.JUNCTION_GRAPH);
+    }
     return this.maze;
   }
 }
@@ -0,0 +1,94 @@
+package src.game;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Converts maze files between the text format and the {@link BinaryMazeFormat binary format}.
+ * A text maze is converted to a binary one and a binary maze back to text.
+ */
+public final class MazeConverter {
+
+  private MazeConverter() {
+  }
+
+  /**
+   * Checks if the file is a binary maze.
+   *
+   * @param pathToMaze the path to the maze file.
+   * @return true if the file starts with the magic bytes of the binary format.
+   * @throws IOException if the file cannot be read.
+   */
+  public static boolean isBinary(Path pathToMaze) throws IOException {
+    try (InputStream in = Files.newInputStream(pathToMaze)) {
+      byte[] start = in.readNBytes(4);
+      return BinaryMazeFormat.isBinary(start, start.length);
+    }
+  }
+
+  /**
+   * Converts a text maze file to a binary maze file.
+   *
+   * @param textMaze   the path to the text maze.
+   * @param binaryMaze the path of the binary maze to write.
+   * @return true if the maze was converted, false if the text is not a valid maze.
+   * @throws IOException if a file cannot be read or written.
+   */
+  public static boolean toBinary(Path textMaze, Path binaryMaze) throws IOException {
+    boolean converted;
+    try (BufferedReader text = Files.newBufferedReader(textMaze);
+         OutputStream out = Files.newOutputStream(binaryMaze)) {
+      converted = BinaryMazeFormat.encode(text, out);
+    }
+    if (!converted) {
+      Files.deleteIfExists(binaryMaze);
+    }
+    return converted;
+  }
+
+  /**
+   * Converts a binary maze file to a text maze file.
+   *
+   * @param binaryMaze the path to the binary maze.
+   * @param textMaze   the path of the text maze to write.
+   * @throws IOException if a file cannot be read or written or the binary maze is not valid.
+   */
+  public static void toText(Path binaryMaze, Path textMaze) throws IOException {
+    try (InputStream in = Files.newInputStream(binaryMaze);
+         BufferedWriter text = Files.newBufferedWriter(textMaze)) {
+      BinaryMazeFormat.decode(in, text);
+    }
+  }
+
+  /**
+   * Converts the maze file given as the first argument to the other format and writes it to the file given as
+   * the second argument.
+   *
+   * @param args the input and the output maze file.
+   */
+  public static void main(String[] args) {
+    if (args.length != 2) {
+      System.out.println("Usage: MazeConverter <input maze> <output maze>");
+      return;
+    }
+    Path input = Path.of(args[0]);
+    Path output = Path.of(args[1]);
+    try {
+      if (isBinary(input)) {
+        toText(input, output);
+        System.out.println("Converted binary maze " + input + " to text maze " + output);
+      } else if (toBinary(input, output)) {
+        System.out.println("Converted text maze " + input + " to binary maze " + output);
+      } else {
+        System.out.println("Invalid text maze " + input);
+      }
+    } catch (IOException e) {
+      System.out.println("Conversion failed: " + e.getMessage());
+    }
+  }
+}
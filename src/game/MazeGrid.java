@@ -0,0 +1,385 @@
+package src.game;
+
+import src.game.resources.ObjectType;
+import src.tool.common.CommonMazeObject;
+import src.tool.common.Observable.Observer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The compact backing store of the fields of a maze.
+ * Every cell keeps one byte of its type and the index of the first object standing on it. The objects are
+ * kept in slots linked per cell in the order they were put, so a cell costs a few bytes no matter how many
+ * kinds of objects it could hold, and only the cells that hold objects use slots.
+ * The byte of a cell also has a bit for every type of object standing on it, and the first slot of a cell
+ * counts its ghosts, so occupancy queries are bit tests that neither walk the slots nor allocate.
+ * The observers of the fields are kept here as well, the fields themselves are views without any state.
+ */
+class MazeGrid {
+  static final byte WALL = 0;
+  static final byte PATH = 1;
+  private static final int NONE = -1;
+  // the bit of the first object type in the byte of a cell, the bit below it is the path bit
+  private static final int OBJECT_SHIFT = 1;
+
+  // the path bit and the object type bits of the cells
+  private final byte[] types;
+  private final int[] firstSlot;
+  // slots of the objects on the cells, a free slot links to the next free one
+  private CommonMazeObject[] slotObject;
+  private int[] nextSlot;
+  // the cell of every used slot, so the occupied cells are found without visiting the empty ones
+  private int[] slotCell;
+  // the number of ghosts on the cell, kept at the first slot of the cell
+  private int[] slotGhosts;
+  private int freeSlot;
+  private int usedSlots;
+  // observers of the cells, created when the first observer is added
+  private Set<Observer>[] observers;
+
+  /**
+   * Constructs a store of the specified number of cells, all of them walls without objects.
+   *
+   * @param cells the number of cells.
+   */
+  MazeGrid(int cells) {
+    this.types = new byte[cells];
+    this.firstSlot = new int[cells];
+    Arrays.fill(this.firstSlot, NONE);
+    this.slotObject = new CommonMazeObject[16];
+    this.nextSlot = new int[16];
+    this.slotCell = new int[16];
+    this.slotGhosts = new int[16];
+    this.freeSlot = NONE;
+    this.usedSlots = 0;
+    this.observers = null;
+  }
+
+  /**
+   * Returns the number of cells.
+   *
+   * @return the number of cells.
+   */
+  int size() {
+    return this.types.length;
+  }
+
+  /**
+   * Checks if the cell can be walked on.
+   *
+   * @param cell the cell index.
+   * @return true if the cell is a path, false if it is a wall.
+   */
+  boolean isPath(int cell) {
+    return (this.types[cell] & PATH) != 0;
+  }
+
+  /**
+   * Sets the type of the cell.
+   *
+   * @param cell the cell index.
+   * @param type {@link #WALL} or {@link #PATH}.
+   */
+  void setType(int cell, byte type) {
+    this.types[cell] = (byte) (this.types[cell] & ~PATH | type);
+  }
+
+  private static int bitOf(ObjectType type) {
+    return 1 << (OBJECT_SHIFT + type.ordinal());
+  }
+
+  /**
+   * Checks if any object stands on the cell.
+   *
+   * @param cell the cell index.
+   * @return true if the cell holds at least one object.
+   */
+  boolean isOccupied(int cell) {
+    return (this.types[cell] & ~PATH) != 0;
+  }
+
+  /**
+   * Returns the types of the objects standing on the cell as a bitmask, with the bit of a type at its ordinal.
+   *
+   * @param cell the cell index.
+   * @return the bitmask, 0 if the cell holds no object.
+   */
+  int occupancy(int cell) {
+    return (this.types[cell] & 0xFF) >>> OBJECT_SHIFT;
+  }
+
+  /**
+   * Checks if an object of the specified type stands on the cell.
+   *
+   * @param cell the cell index.
+   * @param type the type of the object.
+   * @return true if the cell holds an object of the type.
+   */
+  boolean has(int cell, ObjectType type) {
+    return (this.types[cell] & bitOf(type)) != 0;
+  }
+
+  /**
+   * Returns the number of ghosts on the cell.
+   *
+   * @param cell the cell index.
+   * @return the number of ghosts.
+   */
+  int ghostCount(int cell) {
+    return this.has(cell, ObjectType.GHOST) ? this.slotGhosts[this.firstSlot[cell]] : 0;
+  }
+
+  /**
+   * Returns the first object put on the cell of the specified type.
+   *
+   * @param cell the cell index.
+   * @param type the type of the object.
+   * @return the object, or null if the cell holds no object of the type.
+   */
+  CommonMazeObject first(int cell, ObjectType type) {
+    if (!this.has(cell, type)) {
+      return null;
+    }
+    for (int slot = this.firstSlot[cell]; slot != NONE; slot = this.nextSlot[slot]) {
+      if (this.slotObject[slot].getType() == type) {
+        return this.slotObject[slot];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the ghosts on the cell in the order they were put.
+   *
+   * @param cell the cell index.
+   * @return a new list of the ghosts on the cell.
+   */
+  List<GhostObject> ghosts(int cell) {
+    List<GhostObject> ghosts = new ArrayList<>(this.ghostCount(cell));
+    if (!this.has(cell, ObjectType.GHOST)) {
+      return ghosts;
+    }
+    for (int slot = this.firstSlot[cell]; slot != NONE; slot = this.nextSlot[slot]) {
+      if (this.slotObject[slot].getType() == ObjectType.GHOST) {
+        ghosts.add((GhostObject) this.slotObject[slot]);
+      }
+    }
+    return ghosts;
+  }
+
+  /**
+   * Returns the objects on the cell in the order they were put.
+   *
+   * @param cell the cell index.
+   * @return a new list of the objects on the cell.
+   */
+  List<CommonMazeObject> objects(int cell) {
+    List<CommonMazeObject> objects = new ArrayList<>();
+    for (int slot = this.firstSlot[cell]; slot != NONE; slot = this.nextSlot[slot]) {
+      objects.add(this.slotObject[slot]);
+    }
+    return objects;
+  }
+
+  /**
+   * Returns the cells holding at least one object. Only the used slots are visited, so the cost depends on the
+   * number of objects and not on the size of the maze.
+   *
+   * @return the indices of the occupied cells, each of them once.
+   */
+  int[] occupiedCells() {
+    int[] cells = new int[this.usedSlots];
+    int count = 0;
+    for (int slot = 0; slot < this.usedSlots; slot++) {
+      // a cell is counted at its first slot only, free slots hold no object
+      if (this.slotObject[slot] != null && this.firstSlot[this.slotCell[slot]] == slot) {
+        cells[count++] = this.slotCell[slot];
+      }
+    }
+    return Arrays.copyOf(cells, count);
+  }
+
+  /**
+   * Checks if the specified object stands on the cell.
+   *
+   * @param cell   the cell index.
+   * @param object the object.
+   * @return true if the object is on the cell.
+   */
+  boolean contains(int cell, CommonMazeObject object) {
+    if (!this.has(cell, object.getType())) {
+      return false;
+    }
+    for (int slot = this.firstSlot[cell]; slot != NONE; slot = this.nextSlot[slot]) {
+      if (this.slotObject[slot] == object) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Puts the object on the cell after the objects already there.
+   *
+   * @param cell   the cell index.
+   * @param object the object.
+   */
+  void add(int cell, CommonMazeObject object) {
+    int slot = this.freeSlot;
+    if (slot != NONE) {
+      this.freeSlot = this.nextSlot[slot];
+    } else {
+      if (this.usedSlots == this.slotObject.length) {
+        this.slotObject = Arrays.copyOf(this.slotObject, 2 * this.usedSlots);
+        this.nextSlot = Arrays.copyOf(this.nextSlot, 2 * this.usedSlots);
+        this.slotCell = Arrays.copyOf(this.slotCell, 2 * this.usedSlots);
+        this.slotGhosts = Arrays.copyOf(this.slotGhosts, 2 * this.usedSlots);
+      }
+      slot = this.usedSlots++;
+    }
+    this.slotObject[slot] = object;
+    this.nextSlot[slot] = NONE;
+    this.slotCell[slot] = cell;
+    this.types[cell] |= (byte) bitOf(object.getType());
+    int ghosts = object.getType() == ObjectType.GHOST ? 1 : 0;
+    if (this.firstSlot[cell] == NONE) {
+      this.firstSlot[cell] = slot;
+      this.slotGhosts[slot] = ghosts;
+      return;
+    }
+    this.slotGhosts[this.firstSlot[cell]] += ghosts;
+    int last = this.firstSlot[cell];
+    while (this.nextSlot[last] != NONE) {
+      last = this.nextSlot[last];
+    }
+    this.nextSlot[last] = slot;
+  }
+
+  /**
+   * Removes the object from the cell.
+   *
+   * @param cell   the cell index.
+   * @param object the object.
+   * @return true if the object was on the cell.
+   */
+  boolean remove(int cell, CommonMazeObject object) {
+    if (!this.has(cell, object.getType())) {
+      return false;
+    }
+    int previous = NONE;
+    for (int slot = this.firstSlot[cell]; slot != NONE; previous = slot, slot = this.nextSlot[slot]) {
+      if (this.slotObject[slot] == object) {
+        unlink(cell, previous, slot);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes the first object of the specified type from the cell.
+   *
+   * @param cell the cell index.
+   * @param type the type of the object.
+   * @return the removed object, or null if the cell holds no object of the type.
+   */
+  CommonMazeObject removeFirst(int cell, ObjectType type) {
+    if (!this.has(cell, type)) {
+      return null;
+    }
+    int previous = NONE;
+    for (int slot = this.firstSlot[cell]; slot != NONE; previous = slot, slot = this.nextSlot[slot]) {
+      CommonMazeObject object = this.slotObject[slot];
+      if (object.getType() == type) {
+        unlink(cell, previous, slot);
+        return object;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Removes all objects from the cell.
+   *
+   * @param cell the cell index.
+   */
+  void clear(int cell) {
+    while (this.firstSlot[cell] != NONE) {
+      unlink(cell, NONE, this.firstSlot[cell]);
+    }
+  }
+
+  private void unlink(int cell, int previous, int slot) {
+    ObjectType type = this.slotObject[slot].getType();
+    int ghosts = this.slotGhosts[this.firstSlot[cell]] - (type == ObjectType.GHOST ? 1 : 0);
+    if (previous == NONE) {
+      this.firstSlot[cell] = this.nextSlot[slot];
+    } else {
+      this.nextSlot[previous] = this.nextSlot[slot];
+    }
+    this.slotObject[slot] = null;
+    this.nextSlot[slot] = this.freeSlot;
+    this.freeSlot = slot;
+    if (this.firstSlot[cell] != NONE) {
+      this.slotGhosts[this.firstSlot[cell]] = ghosts;
+    }
+    // the bit stays set while another object of the type is left, at most the ghosts can be several
+    boolean left = type == ObjectType.GHOST ? ghosts > 0 : this.hasSlotOf(cell, type);
+    if (!left) {
+      this.types[cell] &= (byte) ~bitOf(type);
+    }
+  }
+
+  private boolean hasSlotOf(int cell, ObjectType type) {
+    for (int slot = this.firstSlot[cell]; slot != NONE; slot = this.nextSlot[slot]) {
+      if (this.slotObject[slot].getType() == type) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the observers of the cell.
+   *
+   * @param cell the cell index.
+   * @return the observers, or null if the cell has never had one.
+   */
+  Set<Observer> observersOf(int cell) {
+    return this.observers == null ? null : this.observers[cell];
+  }
+
+  /**
+   * Adds an observer of the cell.
+   *
+   * @param cell     the cell index.
+   * @param observer the observer.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  void addObserver(int cell, Observer observer) {
+    if (this.observers == null) {
+      this.observers = new Set[this.types.length];
+    }
+    if (this.observers[cell] == null) {
+      this.observers[cell] = new HashSet<>();
+    }
+    this.observers[cell].add(observer);
+  }
+
+  /**
+   * Removes an observer of the cell.
+   *
+   * @param cell     the cell index.
+   * @param observer the observer.
+   */
+  void removeObserver(int cell, Observer observer) {
+    Set<Observer> cellObservers = observersOf(cell);
+    if (cellObservers != null) {
+      cellObservers.remove(observer);
+    }
+  }
+}
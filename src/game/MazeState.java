@@ -0,0 +1,282 @@
+package src.game;
+
+import src.tool.common.CommonMazeObject;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the state of a game, for lookahead and what-if simulation.
+ * The walls are not copied, every state refers to its maze for them. The objects of the maze are numbered when
+ * a state is captured and the states derived from it share the numbering. A state only keeps the cell of every
+ * object and the counters of Pacman, so changing a state copies an array of one int per object and leaves the
+ * original untouched. A state is applied to its maze through {@link Maze#setObjectLayoutTo(Map)}.
+ */
+public final class MazeState {
+  /**
+   * The cell of an object that is not in the maze, such as a collected key.
+   */
+  public static final int ABSENT = -1;
+
+  private final Roster roster;
+  private final int[] cells;
+  private final int lives;
+  private final int boost;
+  private final boolean victory;
+
+  /**
+   * The objects of a maze by their numbers, shared by a captured state and the states derived from it.
+   */
+  private static final class Roster {
+    private final Maze maze;
+    private final CommonMazeObject[] objects;
+    private final Map<CommonMazeObject, Integer> numbers;
+
+    private Roster(Maze maze, CommonMazeObject[] objects) {
+      this.maze = maze;
+      this.objects = objects;
+      this.numbers = new IdentityHashMap<>();
+      for (int i = 0; i < objects.length; i++) {
+        this.numbers.put(objects[i], i);
+      }
+    }
+  }
+
+  private MazeState(Roster roster, int[] cells, int lives, int boost, boolean victory) {
+    this.roster = roster;
+    this.cells = cells;
+    this.lives = lives;
+    this.boost = boost;
+    this.victory = victory;
+  }
+
+  /**
+   * Captures the current state of the maze. The objects are numbered in the order of the lists of the maze,
+   * Pacman and the target first, followed by the objects of the initial layout that are no longer in the maze.
+   * An object is present only if the grid holds it on its field, Pacman keeps its field after it is taken off.
+   *
+   * @param maze the maze.
+   * @return the state of the maze.
+   */
+  public static MazeState of(Maze maze) {
+    Map<CommonMazeObject, Boolean> present = new LinkedHashMap<>();
+    if (maze.getPacman() != null) {
+      present.put(maze.getPacman(), true);
+    }
+    if (maze.getTarget() != null) {
+      present.put(maze.getTarget(), true);
+    }
+    maze.getGhosts().forEach((object) -> present.put(object, true));
+    maze.getKeys().forEach((object) -> present.put(object, true));
+    maze.getBoosts().forEach((object) -> present.put(object, true));
+    if (maze.getInitialObjectsLayout() != null) {
+      maze.getInitialObjectsLayout().keySet().forEach((object) -> present.putIfAbsent(object, false));
+    }
+    CommonMazeObject[] objects = present.keySet().toArray(new CommonMazeObject[0]);
+    int[] cells = new int[objects.length];
+    for (int i = 0; i < objects.length; i++) {
+      CommonMazeObject object = objects[i];
+      cells[i] = present.get(object) && object.getField() != null && object.getField().contains(object)
+        ? maze.indexOf(object.getField()) : ABSENT;
+    }
+    PacmanObject pacman = maze.getPacman();
+    return new MazeState(new Roster(maze, objects), cells,
+      pacman == null ? 0 : pacman.getLives(), pacman == null ? 0 : pacman.getBoost(),
+      pacman != null && pacman.isVictorious());
+  }
+
+  /**
+   * Returns the maze of the state.
+   *
+   * @return the maze.
+   */
+  public Maze getMaze() {
+    return this.roster.maze;
+  }
+
+  /**
+   * Returns the number of objects of the maze, including the absent ones.
+   *
+   * @return the number of objects.
+   */
+  public int numObjects() {
+    return this.cells.length;
+  }
+
+  /**
+   * Returns the object with the specified number.
+   *
+   * @param number the number of the object.
+   * @return the object.
+   */
+  public CommonMazeObject objectAt(int number) {
+    return this.roster.objects[number];
+  }
+
+  /**
+   * Returns the number of the object, the same in all states derived from the same captured state.
+   *
+   * @param object the object.
+   * @return the number of the object, or -1 if the object is not from the maze of the state.
+   */
+  public int numberOf(CommonMazeObject object) {
+    Integer number = this.roster.numbers.get(object);
+    return number == null ? -1 : number;
+  }
+
+  /**
+   * Returns the cell of the object with the specified number.
+   *
+   * @param number the number of the object.
+   * @return the cell index, or {@link #ABSENT} if the object is not in the maze.
+   */
+  public int cellAt(int number) {
+    return this.cells[number];
+  }
+
+  /**
+   * Returns the cell of the object.
+   *
+   * @param object the object.
+   * @return the cell index, or {@link #ABSENT} if the object is not in the maze.
+   */
+  public int cellOf(CommonMazeObject object) {
+    return this.cells[this.checkedNumberOf(object)];
+  }
+
+  /**
+   * Returns the number of lives of Pacman.
+   *
+   * @return the number of lives.
+   */
+  public int getLives() {
+    return this.lives;
+  }
+
+  /**
+   * Returns the number of moves left of the boost of Pacman.
+   *
+   * @return the number of moves, 0 without a boost.
+   */
+  public int getBoost() {
+    return this.boost;
+  }
+
+  /**
+   * Checks if Pacman has won.
+   *
+   * @return true if Pacman has won.
+   */
+  public boolean isVictorious() {
+    return this.victory;
+  }
+
+  private int checkedNumberOf(CommonMazeObject object) {
+    int number = this.numberOf(object);
+    if (number < 0) {
+      throw new IllegalArgumentException("The object is not from the maze of the state.");
+    }
+    return number;
+  }
+
+  /**
+   * Returns a state with the object on the specified cell and everything else as in this state.
+   *
+   * @param object the object.
+   * @param cell   the cell index of a path, or {@link #ABSENT} to take the object out of the maze.
+   * @return the new state, or this state if the object is already there.
+   */
+  public MazeState withCell(CommonMazeObject object, int cell) {
+    int number = this.checkedNumberOf(object);
+    if (cell != ABSENT && !this.getMaze().isWalkable(cell)) {
+      throw new IllegalArgumentException("Objects can only stand on paths.");
+    }
+    if (this.cells[number] == cell) {
+      return this;
+    }
+    int[] changed = Arrays.copyOf(this.cells, this.cells.length);
+    changed[number] = cell;
+    return new MazeState(this.roster, changed, this.lives, this.boost, this.victory);
+  }
+
+  /**
+   * Returns a state without the object and everything else as in this state.
+   *
+   * @param object the object.
+   * @return the new state, or this state if the object is already absent.
+   */
+  public MazeState without(CommonMazeObject object) {
+    return this.withCell(object, ABSENT);
+  }
+
+  /**
+   * Returns a state with the specified counters of Pacman and the same objects as this state, which are shared.
+   *
+   * @param lives   the number of lives.
+   * @param boost   the number of moves left of the boost.
+   * @param victory true if Pacman has won.
+   * @return the new state.
+   */
+  public MazeState withCounters(int lives, int boost, boolean victory) {
+    return new MazeState(this.roster, this.cells, lives, boost, victory);
+  }
+
+  /**
+   * Returns the layout of the objects present in the state, in the order of their numbers.
+   *
+   * @return a new layout for {@link Maze#setObjectLayoutTo(Map)}.
+   */
+  public Map<CommonMazeObject, PathField> toLayout() {
+    Map<CommonMazeObject, PathField> layout = new LinkedHashMap<>();
+    for (int i = 0; i < this.cells.length; i++) {
+      if (this.cells[i] != ABSENT) {
+        layout.put(this.roster.objects[i], (PathField) this.getMaze().fieldAt(this.cells[i]));
+      }
+    }
+    return layout;
+  }
+
+  /**
+   * Sets the maze to this state: the objects through {@link Maze#setObjectLayoutTo(Map)} and the counters of
+   * Pacman.
+   */
+  public void applyTo() {
+    this.getMaze().setObjectLayoutTo(this.toLayout());
+    PacmanObject pacman = this.getMaze().getPacman();
+    if (pacman != null) {
+      pacman.setCounters(this.lives, this.boost, this.victory);
+    }
+  }
+
+  /**
+   * Checks if the other state has the same objects on the same cells and the same counters.
+   *
+   * @param other the other object.
+   * @return true if the states are equal.
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof MazeState state)) {
+      return false;
+    }
+    boolean sameObjects = this.roster == state.roster || (this.roster.maze == state.roster.maze
+      && Arrays.equals(this.roster.objects, state.roster.objects));
+    return sameObjects && this.lives == state.lives && this.boost == state.boost
+      && this.victory == state.victory && Arrays.equals(this.cells, state.cells);
+  }
+
+  /**
+   * Returns the hash code of the state.
+   *
+   * @return the hash code.
+   */
+  @Override
+  public int hashCode() {
+    return 31 * (31 * (31 * Arrays.hashCode(this.cells) + this.lives) + this.boost) + Boolean.hashCode(this.victory);
+  }
+}
@@ -0,0 +1,121 @@
+package src.game;
+
+import src.tool.common.CommonField;
+
+import java.util.Arrays;
+
+/**
+ * The walkable neighbors of every cell of a maze, computed once when the maze is created.
+ * Every cell keeps a mask with one bit per direction of {@link PathFinder#DIRECTIONS} whose neighbor can be
+ * walked on, so a move is checked and a search expands a cell with a single array read instead of one bounds
+ * and wall check per direction.
+ * The maze is surrounded by walls, so the neighbors of a walkable cell are always inside the maze and their
+ * indices are the cell index plus a fixed offset per direction.
+ * The table also runs the breadth-first searches of the maze, the distance fields, regions and tables are all
+ * built from them.
+ */
+class NeighborTable {
+  private final byte[] masks;
+  private final int[] offsets;
+
+  /**
+   * Computes the walkable neighbors of all cells of the maze.
+   *
+   * @param maze the maze.
+   */
+  NeighborTable(Maze maze) {
+    int cols = maze.numCols();
+    this.offsets = new int[PathFinder.DIRECTIONS.length];
+    for (int d = 0; d < this.offsets.length; d++) {
+      this.offsets[d] = PathFinder.DIRECTIONS[d].deltaRow() * cols + PathFinder.DIRECTIONS[d].deltaCol();
+    }
+    this.masks = new byte[maze.numCells()];
+    for (int cell = 0; cell < this.masks.length; cell++) {
+      if (!maze.isWalkable(cell)) {
+        continue;
+      }
+      int mask = 0;
+      for (int d = 0; d < this.offsets.length; d++) {
+        if (maze.isWalkable(cell + this.offsets[d])) {
+          mask |= 1 << d;
+        }
+      }
+      this.masks[cell] = (byte) mask;
+    }
+  }
+
+  /**
+   * Returns the directions in which the cell can be left.
+   *
+   * @param cell the cell index.
+   * @return bit d is set if the neighbor in direction {@code PathFinder.DIRECTIONS[d]} is walkable, 0 for a wall.
+   */
+  int mask(int cell) {
+    return this.masks[cell];
+  }
+
+  /**
+   * Returns the neighbor of the cell in the specified direction.
+   *
+   * @param cell      the cell index.
+   * @param direction the index of the direction in {@link PathFinder#DIRECTIONS}.
+   * @return the cell index of the neighbor.
+   */
+  int neighbor(int cell, int direction) {
+    return cell + this.offsets[direction];
+  }
+
+  /**
+   * Checks if the cell can be left in the specified direction.
+   *
+   * @param cell      the cell index.
+   * @param direction the direction, STOP is always possible.
+   * @return true if the neighbor in the direction is walkable.
+   */
+  boolean canMove(int cell, CommonField.Direction direction) {
+    // the directions of the search are declared in the same order as the enum
+    return direction == CommonField.Direction.STOP || (this.masks[cell] & (1 << direction.ordinal())) != 0;
+  }
+
+  /**
+   * Fills the walking distance from the source to every cell with a breadth-first search.
+   *
+   * @param source    the source cell index.
+   * @param distances the array to fill, indexed by cell, -1 for cells that cannot be reached.
+   * @param queue     a buffer of one int per cell.
+   * @return the number of cells reached, see {@link #search(int, int[], int[])}.
+   */
+  int distancesFrom(int source, int[] distances, int[] queue) {
+    Arrays.fill(distances, -1);
+    return this.search(source, distances, queue);
+  }
+
+  /**
+   * Runs a breadth-first search from the source over the cells that have not been reached yet. A caller that
+   * searches many times clears only the cells reached by the last search instead of the whole array.
+   *
+   * @param source    the source cell index.
+   * @param distances the distance of every cell, -1 for the cells the search may reach.
+   * @param queue     a buffer of one int per cell, the reached cells are its first entries in the order of their
+   *                  distances.
+   * @return the number of cells reached, the source included.
+   */
+  int search(int source, int[] distances, int[] queue) {
+    distances[source] = 0;
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = source;
+    while (head < tail) {
+      int current = queue[head++];
+      int nextDistance = distances[current] + 1;
+      for (int open = this.masks[current]; open != 0; open &= open - 1) {
+        int neighbor = current + this.offsets[Integer.numberOfTrailingZeros(open)];
+        if (distances[neighbor] == -1) {
+          distances[neighbor] = nextDistance;
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+    return tail;
+  }
+}
@@ -1,6 +1,8 @@
 package src.game;
 
 import src.game.resources.ObjectType;
+import src.game.resources.PlannerType;
+import src.game.resources.SearchMode;
 import src.tool.common.CommonField;
 import src.tool.common.CommonMazeObject;
 
@@ -19,6 +21,17 @@ public class PacmanObject implements CommonMazeObject {
   private boolean victory;
   private CommonField goToField;
   private int boost = 0;
+  private PlannerType planner;
+  private DStarLite incrementalPlanner;
+  private boolean ghostsAsHighCost;
+  // route planned by the A* planner, the cell it starts from and the cell it leads to
+  private int[] route;
+  private int routeIndex;
+  private int routeStart;
+  private int routeGoal;
+  // fields of the keys and the target in the order the autopilot visits them
+  private int[] tour;
+  private int tourIndex;
 
   /**
    * Constructor for PacmanObject.
@@ -35,6 +48,15 @@ public class PacmanObject implements CommonMazeObject {
     this.direction = CommonField.Direction.STOP;
     this.victory = false;
     this.goToField = null;
+    this.planner = PlannerType.DISTANCE_FIELD;
+    this.incrementalPlanner = null;
+    this.ghostsAsHighCost = false;
+    this.route = null;
+    this.routeIndex = 0;
+    this.routeStart = -1;
+    this.routeGoal = -1;
+    this.tour = null;
+    this.tourIndex = 0;
   }
 
   /**
@@ -64,7 +86,8 @@ public class PacmanObject implements CommonMazeObject {
    */
   @Override
   public boolean canMove(PathField.Direction direction) {
-    return this.currentField.nextField(direction).canMove();
+    Maze maze = (Maze) this.currentField.getMaze();
+    return maze.getNeighbors().canMove(maze.indexOf(this.currentField), direction);
   }
 
   /**
@@ -74,6 +97,10 @@ public class PacmanObject implements CommonMazeObject {
    */
   @Override
   public boolean move() {
+    // the autopilot points Pacman to the next key or the target
+    if (this.isAutopilotOn()) {
+      this.followTour();
+    }
     // check if Pacman is pointed by mouse click
     if (this.isGoToSet()) {
       this.direction = this.searchDirection(this.getGoToField());
@@ -85,15 +112,133 @@ public class PacmanObject implements CommonMazeObject {
   }
 
   /**
-   * Searches for the direction to reach the specified field using the A* algorithm.
+   * Searches for the direction to reach the specified field using the selected planner.
    *
    * @param goToField the field to reach
    * @return the direction to reach the field
    */
   private CommonField.Direction searchDirection(CommonField goToField) {
-    // Find the shortest path to the field using the PathFinder class
-    PathFinder pathFinder = new PathFinder();
-    return pathFinder.findShortestPathDirection(this.currentField, goToField);
+    Maze maze = (Maze) this.currentField.getMaze();
+    return switch (this.planner) {
+      // Follow the route found by the path finder of the maze when the field was clicked
+      case A_STAR -> this.followRoute(maze, goToField);
+      // Step down the cached distance field of the go-to field
+      case DISTANCE_FIELD -> maze.getDistanceFields().nextDirection(this.currentField, goToField);
+      // Repair the search kept from the previous move around the cells the ghosts changed
+      case D_STAR_LITE -> this.getIncrementalPlanner(maze).nextDirection(this.currentField, goToField);
+      // Keep away from the ghosts unless the detour is longer than the danger of passing them
+      case SAFE_ROUTE -> maze.getPathFinder().findSafeDirection(this.currentField, goToField);
+    };
+  }
+
+  /**
+   * Returns the direction of the next move on the stored route to the specified field.
+   * The route is only searched again when the field changes or Pacman is no longer where the route expects,
+   * for example after the maze was restored.
+   * The hierarchical and junction graph searches only refine the first move of a path, so in these modes no route
+   * is stored and the first move is searched on the abstract graph on every move.
+   *
+   * @param maze      the maze Pacman is in
+   * @param goToField the field to reach
+   * @return the direction to reach the field, or STOP if it is reached or not reachable
+   */
+  private CommonField.Direction followRoute(Maze maze, CommonField goToField) {
+    SearchMode mode = maze.getPathFinder().getMode();
+    if (mode == SearchMode.HIERARCHICAL || mode == SearchMode.JUNCTION_GRAPH) {
+      this.route = null;
+      this.routeGoal = -1;
+      return maze.getPathFinder().findShortestPathDirection(this.currentField, goToField);
+    }
+    int current = maze.indexOf(this.currentField);
+    int goal = maze.indexOf(goToField);
+    // Step over the cell reached by the previous move
+    if (this.route != null && this.routeIndex < this.route.length && this.route[this.routeIndex] == current) {
+      this.routeIndex++;
+    }
+    if (goal != this.routeGoal || !this.isOnRoute(maze, current)) {
+      this.route = maze.getPathFinder().findRoute(current, goal);
+      this.routeIndex = 0;
+      this.routeStart = current;
+      this.routeGoal = goal;
+    }
+    if (this.route == null || this.routeIndex == this.route.length) {
+      return CommonField.Direction.STOP;
+    }
+    return PathFinder.getDirectionTo(current, this.route[this.routeIndex], maze.numCols());
+  }
+
+  /**
+   * Checks if Pacman stands on the stored route and the next cell of the route can still be entered.
+   *
+   * @param maze    the maze Pacman is in
+   * @param current the cell index of Pacman
+   * @return true if the route can be followed, false if it has to be searched again
+   */
+  private boolean isOnRoute(Maze maze, int current) {
+    if (this.route == null) {
+      return current == this.routeStart;
+    }
+    int expected = this.routeIndex == 0 ? this.routeStart : this.route[this.routeIndex - 1];
+    return current == expected && (this.routeIndex == this.route.length || maze.isWalkable(this.route[this.routeIndex]));
+  }
+
+  /**
+   * Returns the number of moves left on the stored route.
+   *
+   * @return the number of moves left, or 0 if there is no route
+   */
+  public int getRemainingRouteLength() {
+    return this.route == null ? 0 : this.route.length - this.routeIndex;
+  }
+
+  /**
+   * Gets the incremental planner of Pacman, creating it on the first use.
+   *
+   * @param maze the maze Pacman is in
+   * @return the incremental planner
+   */
+  private DStarLite getIncrementalPlanner(Maze maze) {
+    if (this.incrementalPlanner == null) {
+      this.incrementalPlanner = new DStarLite(maze);
+    }
+    this.incrementalPlanner.setGhostsAsHighCost(this.ghostsAsHighCost);
+    return this.incrementalPlanner;
+  }
+
+  /**
+   * Sets how the incremental planner treats the fields occupied by ghosts.
+   *
+   * @param ghostsAsHighCost true to walk through ghost fields at a high cost, false to wait until they are free
+   */
+  public void setGhostsAsHighCost(boolean ghostsAsHighCost) {
+    this.ghostsAsHighCost = ghostsAsHighCost;
+  }
+
+  /**
+   * Checks if the incremental planner treats the fields occupied by ghosts as high cost.
+   *
+   * @return true if ghost fields are high cost, false if they are blocked
+   */
+  public boolean isGhostsAsHighCost() {
+    return this.ghostsAsHighCost;
+  }
+
+  /**
+   * Sets the planner used to reach the go-to field.
+   *
+   * @param planner the planner to use
+   */
+  public void setPlanner(PlannerType planner) {
+    this.planner = planner;
+  }
+
+  /**
+   * Gets the planner used to reach the go-to field.
+   *
+   * @return the planner used to reach the go-to field
+   */
+  public PlannerType getPlanner() {
+    return this.planner;
   }
 
   /**
@@ -105,6 +250,58 @@ public class PacmanObject implements CommonMazeObject {
     return this.getGoToField() != null;
   }
 
+  /**
+   * Turns on the autopilot, which collects all keys on the shortest tour it can find and then takes the target.
+   *
+   * @return true if the tour was planned, false if a key or the target cannot be reached
+   */
+  public boolean startAutopilot() {
+    Maze maze = (Maze) this.currentField.getMaze();
+    this.tour = new KeyCollectionPlanner(maze).planTour();
+    this.tourIndex = 0;
+    return this.tour != null;
+  }
+
+  /**
+   * Turns off the autopilot and stops Pacman at the next move.
+   */
+  public void stopAutopilot() {
+    this.tour = null;
+    this.unsetGoToField();
+    this.direction = CommonField.Direction.STOP;
+  }
+
+  /**
+   * Checks if the autopilot drives Pacman.
+   *
+   * @return true if the autopilot is on, false otherwise
+   */
+  public boolean isAutopilotOn() {
+    return this.tour != null;
+  }
+
+  /**
+   * Sets the go-to field to the next field of the autopilot tour, skipping keys that were already collected
+   * on the way. Turns the autopilot off when the tour is finished.
+   */
+  private void followTour() {
+    Maze maze = (Maze) this.currentField.getMaze();
+    int current = maze.indexOf(this.currentField);
+    while (this.tourIndex < this.tour.length) {
+      int cell = this.tour[this.tourIndex];
+      boolean isTarget = this.tourIndex == this.tour.length - 1;
+      if (cell != current && (isTarget || ((PathField) maze.fieldAt(cell)).getKey() != null)) {
+        break;
+      }
+      this.tourIndex++;
+    }
+    if (this.tourIndex == this.tour.length) {
+      this.stopAutopilot();
+      return;
+    }
+    this.goToField = maze.fieldAt(this.tour[this.tourIndex]);
+  }
+
   /**
    * Sets the go-to field for Pacman.
    *
@@ -292,6 +489,10 @@ public class PacmanObject implements CommonMazeObject {
     this.direction = CommonField.Direction.STOP;
     // Restore the whole maze to its initial state
     this.currentField.getMaze().restore();
+    // The keys are back, the autopilot has to plan the tour again
+    if (this.isAutopilotOn()) {
+      this.startAutopilot();
+    }
   }
 
   /**
@@ -300,7 +501,8 @@ public class PacmanObject implements CommonMazeObject {
    * @return true if Pacman is caught by a ghost, false otherwise
    */
   public boolean isCaughtByGhost() {
-    return !this.getField().getGhosts().isEmpty();
+    // a single test of the occupancy bits of the field
+    return this.getField().has(ObjectType.GHOST);
   }
 
   /**
@@ -321,6 +523,28 @@ public class PacmanObject implements CommonMazeObject {
     return this.boost > 0;
   }
 
+  /**
+   * Returns the number of moves left of the boost.
+   *
+   * @return the number of moves, 0 without a boost
+   */
+  public int getBoost() {
+    return this.boost;
+  }
+
+  /**
+   * Sets the lives, the boost and the victory of Pacman, as kept by a {@link MazeState}.
+   *
+   * @param lives   the number of lives remaining
+   * @param boost   the number of moves left of the boost
+   * @param victory true if Pacman has won
+   */
+  void setCounters(int lives, int boost, boolean victory) {
+    this.livesRemaining = lives;
+    this.boost = boost;
+    this.victory = victory;
+  }
+
   /**
    * Sets the boost duration for Pacman.
    *
@@ -6,8 +6,6 @@ import src.tool.common.CommonField;
 import src.tool.common.CommonMazeObject;
 import src.tool.common.CommonMaze;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -15,40 +13,38 @@ import java.util.Set;
  * Represents a field in the maze that can contain objects.
  * The field is part of the playing field of the game.
  * The field can contain a Pacman, a Ghost, a Key, a Boost or a Target.
+ * The field is a view of one cell of the {@link MazeGrid} of its maze and keeps no state of its own. The maze
+ * creates the view when the cell is first asked for and hands out the same view from then on.
  * @author Gabriel Biel
  * @author Jakub Mikysek
  */
 public class PathField implements CommonField {
-  private final Coordinate coordinate;
-  private List<GhostObject> ghostOnField;
-  private PacmanObject pacman;
-  private KeyObject key;
-  private BoostObject boost;
-  private TargetObject target;
-  private CommonMaze maze;
-  private final Set<Observer> observers = new HashSet<>();
+  // the order in which the objects on the field are returned by get()
+  private static final ObjectType[] PRIORITY = {ObjectType.PACMAN, ObjectType.GHOST, ObjectType.KEY,
+    ObjectType.BOOST, ObjectType.TARGET};
+  private final Maze maze;
+  private final int index;
+  // created on first use, the maze hands out one view per cell so the coordinate is shared by all its users
+  private Coordinate coordinate;
 
   /**
-   * Constructs a PathField with the specified coordinates.
+   * Constructs a view of the specified cell of the maze.
    *
-   * @param x the x-coordinate of the field.
-   * @param y the y-coordinate of the field.
+   * @param maze  the maze containing this field.
+   * @param index the cell index of the field.
    */
-  public PathField(int x, int y) {
-    this.coordinate = new Coordinate(x, y);
-    this.ghostOnField = new ArrayList<>();
-    this.pacman = null;
-    this.key = null;
-    this.target = null;
+  PathField(Maze maze, int index) {
+    this.maze = maze;
+    this.index = index;
   }
 
   /**
-   * Sets the maze that contains this field.
+   * Returns the cell index of the field.
    *
-   * @param maze the maze containing this field.
+   * @return the cell index of the field.
    */
-  public void setMaze(CommonMaze maze) {
-    this.maze = maze;
+  int index() {
+    return this.index;
   }
 
   /**
@@ -58,6 +54,9 @@ public class PathField implements CommonField {
    */
   @Override
   public Coordinate getCoordinate() {
+    if (this.coordinate == null) {
+      this.coordinate = new Coordinate(this.index / this.maze.numCols(), this.index % this.maze.numCols());
+    }
     return this.coordinate;
   }
 
@@ -66,11 +65,7 @@ public class PathField implements CommonField {
    */
   @Override
   public void clearField() {
-    this.pacman = null;
-    this.ghostOnField.clear();
-    this.key = null;
-    this.boost = null;
-    this.target = null;
+    this.maze.getGrid().clear(this.index);
     this.notifyObservers();
   }
 
@@ -83,29 +78,36 @@ public class PathField implements CommonField {
     if (object == null) {
       return;
     }
+    this.place(object);
+    this.notifyObservers();
+  }
+
+  /**
+   * Puts the specified object on the field without notifying the observers. The caller notifies them once it has
+   * finished changing the field.
+   *
+   * @param object the object to put on the field.
+   */
+  void place(CommonMazeObject object) {
     // Set this field to object
     object.setField(this);
+    MazeGrid grid = this.maze.getGrid();
     // If object is pacman
-    if (object.isPacman() && this.pacman == null) {
-      this.pacman = (PacmanObject) object;
+    if (object.isPacman()) {
+      if (grid.first(this.index, ObjectType.PACMAN) == null) {
+        grid.add(this.index, object);
+      }
     }
     // If object is ghost
     else if (object.getType() == ObjectType.GHOST) {
-      this.ghostOnField.add((GhostObject) object);
+      grid.add(this.index, object);
     }
-    // If object is key
-    else if (object.getType() == ObjectType.KEY) {
-      this.key = (KeyObject) object;
+    // If object is key, target or boost, it replaces the one already on the field
+    else if (object.getType() == ObjectType.KEY || object.getType() == ObjectType.TARGET
+      || object.getType() == ObjectType.BOOST) {
+      grid.removeFirst(this.index, object.getType());
+      grid.add(this.index, object);
     }
-    // If object is target
-    else if (object.getType() == ObjectType.TARGET) {
-      this.target = (TargetObject) object;
-    }
-    // If object is boost
-    else if (object.getType() == ObjectType.BOOST) {
-      this.boost = (BoostObject) object;
-    }
-    this.notifyObservers();
   }
 
   /**
@@ -114,13 +116,7 @@ public class PathField implements CommonField {
    * @return true if the field is empty, false otherwise.
    */
   public boolean isEmpty() {
-    List<CommonMazeObject> objects = new ArrayList<>(this.ghostOnField);
-    objects.add(this.pacman);
-    objects.add(this.key);
-    objects.add(this.target);
-    objects.add(this.boost);
-    objects.removeIf(item -> item == null);
-    return objects.isEmpty();
+    return !this.maze.getGrid().isOccupied(this.index);
   }
 
   /**
@@ -131,29 +127,19 @@ public class PathField implements CommonField {
   public void remove(CommonMazeObject object) {
     if (object == null)
       return;
+    MazeGrid grid = this.maze.getGrid();
     // If object is pacman
     if (object.getType() == ObjectType.PACMAN) {
-      this.pacman = null;
-      this.notifyObservers();
-    }
-    // If object is ghost
-    else if (object.getType() == ObjectType.GHOST && this.ghostOnField.contains(object)) {
-      this.ghostOnField.remove(object);
+      grid.removeFirst(this.index, ObjectType.PACMAN);
       this.notifyObservers();
     }
-    // If object is key
-    else if (object.getType() == ObjectType.KEY && this.key == object) {
-      this.key = null;
+    // If object is ghost, key or boost
+    else if ((object.getType() == ObjectType.GHOST || object.getType() == ObjectType.KEY
+      || object.getType() == ObjectType.BOOST) && grid.remove(this.index, object)) {
       this.notifyObservers();
     }
     // If object is target
-    else if (object.getType() == ObjectType.TARGET && this.target == object) {
-      this.target = null;
-      this.notifyObservers();
-    }
-    // If object is boost
-    else if (object.getType() == ObjectType.BOOST && this.boost == object) {
-      this.boost = null;
+    else if (object.getType() == ObjectType.TARGET && grid.remove(this.index, object)) {
       this.notifyObservers();
     }
     // Object not found
@@ -167,24 +153,10 @@ public class PathField implements CommonField {
    */
   @Override
   public CommonField nextField(Direction dirs) {
-    switch (dirs) {
-      case DOWN -> {
-        return this.maze.getField(this.coordinate.getX() + 1, this.coordinate.getY());
-      }
-      case LEFT -> {
-        return this.maze.getField(this.coordinate.getX(), this.coordinate.getY() - 1);
-      }
-      case RIGHT -> {
-        return this.maze.getField(this.coordinate.getX(), this.coordinate.getY() + 1);
-      }
-      case UP -> {
-        return this.maze.getField(this.coordinate.getX() - 1, this.coordinate.getY());
-      }
-      case STOP -> {
-        return this;
-      }
-      default -> throw new UnsupportedOperationException("Unexpected value: " + dirs);
+    if (dirs == Direction.STOP) {
+      return this;
     }
+    return this.maze.fieldAt(this.index + dirs.deltaRow() * this.maze.numCols() + dirs.deltaCol());
   }
 
   /**
@@ -194,16 +166,13 @@ public class PathField implements CommonField {
    */
   @Override
   public CommonMazeObject get() {
-    if (this.pacman != null)
-      return this.pacman;
-    if (!this.ghostOnField.isEmpty())
-      return this.ghostOnField.get(0);
-    if (this.key != null)
-      return this.key;
-    if (this.boost != null)
-      return this.boost;
-    if (this.target != null)
-      return this.target;
+    int occupancy = this.occupancy();
+    if (occupancy == 0)
+      return null;
+    for (ObjectType type : PRIORITY) {
+      if ((occupancy & 1 << type.ordinal()) != 0)
+        return this.maze.getGrid().first(this.index, type);
+    }
     return null;
   }
 
@@ -213,7 +182,7 @@ public class PathField implements CommonField {
    * @return the Pacman object on the field, or null if there is no Pacman object.
    */
   public CommonMazeObject getPacman() {
-    return this.pacman;
+    return this.maze.getGrid().first(this.index, ObjectType.PACMAN);
   }
 
   /**
@@ -222,7 +191,7 @@ public class PathField implements CommonField {
    * @return the Key object on the field, or null if there is no Key object.
    */
   public CommonMazeObject getKey() {
-    return this.key;
+    return this.maze.getGrid().first(this.index, ObjectType.KEY);
   }
 
   /**
@@ -231,7 +200,7 @@ public class PathField implements CommonField {
    * @return the Target object on the field, or null if there is no Target object.
    */
   public CommonMazeObject getTarget() {
-    return this.target;
+    return this.maze.getGrid().first(this.index, ObjectType.TARGET);
   }
 
   /**
@@ -240,16 +209,44 @@ public class PathField implements CommonField {
    * @return the Boost object on the field, or null if there is no Boost object.
    */
   public CommonMazeObject getBoost() {
-    return this.boost;
+    return this.maze.getGrid().first(this.index, ObjectType.BOOST);
   }
 
   /**
    * Returns a list of Ghost objects on the field.
    *
-   * @return a list of Ghost objects on the field.
+   * @return a new list of Ghost objects on the field.
    */
   public List<GhostObject> getGhosts() {
-    return this.ghostOnField;
+    return this.maze.getGrid().ghosts(this.index);
+  }
+
+  /**
+   * Returns the types of the objects on the field as a bitmask, with the bit of a type at its ordinal.
+   *
+   * @return the bitmask, 0 if the field is empty.
+   */
+  public int occupancy() {
+    return this.maze.getGrid().occupancy(this.index);
+  }
+
+  /**
+   * Checks if an object of the specified type is on the field.
+   *
+   * @param type the type of the object.
+   * @return true if the field contains an object of the type, false otherwise.
+   */
+  public boolean has(ObjectType type) {
+    return this.maze.getGrid().has(this.index, type);
+  }
+
+  /**
+   * Returns the number of Ghost objects on the field.
+   *
+   * @return the number of Ghost objects on the field.
+   */
+  public int ghostCount() {
+    return this.maze.getGrid().ghostCount(this.index);
   }
 
   /**
@@ -272,11 +269,7 @@ public class PathField implements CommonField {
   public boolean contains(CommonMazeObject object) {
     if (object == null)
       return false;
-    List<CommonMazeObject> objects = new ArrayList<>(this.ghostOnField);
-    objects.add(this.pacman);
-    objects.add(this.key);
-    objects.add(this.target);
-    return objects.contains(object);
+    return this.maze.getGrid().contains(this.index, object);
   }
 
   /**
@@ -286,7 +279,7 @@ public class PathField implements CommonField {
    */
   @Override
   public void addObserver(Observer observer) {
-    this.observers.add(observer);
+    this.maze.getGrid().addObserver(this.index, observer);
   }
 
   /**
@@ -296,7 +289,7 @@ public class PathField implements CommonField {
    */
   @Override
   public void removeObserver(Observer observer) {
-    this.observers.remove(observer);
+    this.maze.getGrid().removeObserver(this.index, observer);
   }
 
   /**
@@ -304,9 +297,12 @@ public class PathField implements CommonField {
    */
   @Override
   public void notifyObservers() {
-    this.observers.forEach((observer) -> {
-      observer.update(this);
-    });
+    Set<Observer> observers = this.maze.getGrid().observersOf(this.index);
+    if (observers != null) {
+      observers.forEach((observer) -> {
+        observer.update(this);
+      });
+    }
   }
 
   /**
@@ -1,10 +1,9 @@
 package src.game;
 
+import src.game.resources.SearchMode;
 import src.tool.common.CommonField;
 
-import java.util.HashSet;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.Arrays;
 
 /**
  * A class that finds the shortest path between two fields in a maze.
@@ -12,38 +11,130 @@ import java.util.Set;
  * The heuristic used is the Manhattan distance.
  * The algorithm is based on the pseudocode found on Wikipedia:
  * https://en.wikipedia.org/wiki/A*_search_algorithm#Pseudocode
+ * Fields are addressed by their cell index in the maze and all search state is kept in primitive arrays
+ * that are allocated once per maze and reused between queries, so a query does not allocate.
+ * In the {@link SearchMode#JUMP_POINT} mode the search uses Jump Point Search for 4-connected grids,
+ * which skips over the cells of straight corridors and open rooms and only expands cells where
+ * an optimal path may turn.
+ * In the {@link SearchMode#HIERARCHICAL} mode the search runs on the clustered abstract graph of the maze,
+ * which keeps queries fast on very large mazes.
+ * In the {@link SearchMode#JUNCTION_GRAPH} mode the search runs on the junctions of the maze connected by
+ * its contracted corridors.
+ * In the {@link SearchMode#ALT} mode the A* search estimates the remaining distance with the landmarks of
+ * the maze, taking the larger of the landmark bound and the Manhattan distance.
+ * In the {@link SearchMode#DISTANCE_ORACLE} mode no search runs at all if the all-pairs distance table of the maze
+ * has been built.
+ * The safe search weighs every move by the danger of the entered cell, see {@link #findSafeDirection}.
  */
-class PathFinder {
-  // Helper class to represent a node in the A* algorithm
-  static class Node {
-    CommonField field;
-    Node parent;
-    int gCost;
-    int hCost;
+public class PathFinder {
+  // Directions in which the search expands, STOP is left out on purpose, opposite directions are two apart
+  static final CommonField.Direction[] DIRECTIONS = {
+    CommonField.Direction.LEFT,
+    CommonField.Direction.UP,
+    CommonField.Direction.RIGHT,
+    CommonField.Direction.DOWN
+  };
 
-    Node(CommonField field, Node parent, int gCost, int hCost) {
-      this.field = field;
-      this.parent = parent;
-      this.gCost = gCost;
-      this.hCost = hCost;
-    }
+  private final Maze maze;
+  private final int cols;
+  private final int[] gCost;
+  private final int[] parent;
+  // a cell is seen/closed in the current query if its stamp equals the current generation
+  private final int[] seenStamp;
+  private final int[] closedStamp;
+  private final IndexedHeap openList;
+  private int generation;
+  private SearchMode mode;
+  // the landmarks of the maze in the ALT mode, null otherwise
+  private Landmarks landmarks;
+  private int expandedNodes;
+  private SearchMode lastQueryMode;
 
-    int fCost() {
-      return gCost + hCost;
-    }
+  /**
+   * Constructs a path finder for the specified maze.
+   *
+   * @param maze the maze to search in.
+   */
+  public PathFinder(Maze maze) {
+    this.maze = maze;
+    this.cols = maze.numCols();
+    int cells = maze.numCells();
+    this.gCost = new int[cells];
+    this.parent = new int[cells];
+    this.seenStamp = new int[cells];
+    this.closedStamp = new int[cells];
+    this.openList = new IndexedHeap(cells);
+    this.generation = 0;
+    this.mode = SearchMode.A_STAR;
+    this.landmarks = null;
+    this.expandedNodes = 0;
+    this.lastQueryMode = null;
+  }
+
+  /**
+   * Sets the search algorithm used by the path finder.
+   *
+   * @param mode the search algorithm.
+   */
+  public void setMode(SearchMode mode) {
+    this.mode = mode;
+    this.landmarks = mode == SearchMode.ALT ? this.maze.getLandmarks() : null;
+  }
+
+  /**
+   * Returns the search algorithm used by the path finder.
+   *
+   * @return the search algorithm.
+   */
+  public SearchMode getMode() {
+    return this.mode;
+  }
+
+  /**
+   * Returns the number of nodes expanded by the last query.
+   *
+   * @return the number of expanded nodes.
+   */
+  public int getExpandedNodes() {
+    return this.expandedNodes;
+  }
+
+  /**
+   * Returns the search algorithm that answered the last query. It differs from the selected mode where the mode
+   * hands a query over to another search, such as whole routes in the hierarchical and junction graph modes.
+   *
+   * @return the search algorithm of the last query, or null if no search has run yet.
+   */
+  public SearchMode getLastQueryMode() {
+    return this.lastQueryMode;
   }
 
-  private static CommonField.Direction getDirectionTo(CommonField startField, CommonField neighborField) {
-    int dx = neighborField.getCoordinate().getX() - startField.getCoordinate().getX();
-    int dy = neighborField.getCoordinate().getY() - startField.getCoordinate().getY();
+  /**
+   * Returns the mode of the plain A* search, which estimates with the landmarks in the ALT mode.
+   *
+   * @return ALT in the ALT mode, A_STAR otherwise.
+   */
+  private SearchMode cellSearchMode() {
+    return this.mode == SearchMode.ALT ? SearchMode.ALT : SearchMode.A_STAR;
+  }
 
-    if (dx == 1 && dy == 0) {
+  /**
+   * Returns the direction of a move between two neighboring cells.
+   *
+   * @param from the cell index to move from.
+   * @param to   the neighboring cell index to move to.
+   * @param cols the number of columns of the maze.
+   * @return the direction of the move, or STOP if the cells are not neighbors.
+   */
+  static CommonField.Direction getDirectionTo(int from, int to, int cols) {
+    int delta = to - from;
+    if (delta == cols) {
       return CommonField.Direction.DOWN;
-    } else if (dx == -1 && dy == 0) {
+    } else if (delta == -cols) {
       return CommonField.Direction.UP;
-    } else if (dx == 0 && dy == 1) {
+    } else if (delta == 1) {
       return CommonField.Direction.RIGHT;
-    } else if (dx == 0 && dy == -1) {
+    } else if (delta == -1) {
       return CommonField.Direction.LEFT;
     } else {
       return CommonField.Direction.STOP;
@@ -51,89 +142,489 @@ class PathFinder {
   }
 
   /**
-   * Calculates the Manhattan distance between two fields.
+   * Calculates the Manhattan distance between two cells.
    *
-   * @param a the first field.
-   * @param b the second field.
-   * @return the Manhattan distance between the two fields.
+   * @param a the first cell index.
+   * @param b the second cell index.
+   * @return the Manhattan distance between the two cells.
   */
-  private static int manhattanDistance(CommonField a, CommonField b) {
-    return Math.abs(a.getCoordinate().getX() - b.getCoordinate().getX()) + Math.abs(a.getCoordinate().getY() - b.getCoordinate().getY());
+  private int manhattanDistance(int a, int b) {
+    return Math.abs(a / this.cols - b / this.cols) + Math.abs(a % this.cols - b % this.cols);
+  }
+
+  /**
+   * Estimates the remaining distance from a cell to the destination cell, never overestimating it.
+   *
+   * @param cell        the cell index.
+   * @param destination the destination cell index.
+   * @return the Manhattan distance, or the landmark bound if it is larger in the ALT mode.
+   */
+  private int heuristic(int cell, int destination) {
+    int distance = manhattanDistance(cell, destination);
+    if (this.landmarks == null) {
+      return distance;
+    }
+    return Math.max(distance, this.landmarks.lowerBound(cell, destination));
+  }
+
+  /**
+   * Starts a new query, so that all the cells stamped by previous queries are considered unseen.
+   */
+  private void nextGeneration() {
+    this.openList.clear();
+    this.generation++;
+    if (this.generation == 0) {
+      // the counter overflowed, stamps from old queries could collide with the new generation
+      Arrays.fill(this.seenStamp, 0);
+      Arrays.fill(this.closedStamp, 0);
+      this.generation = 1;
+    }
   }
 
   /**
-   * Finds the shortest path direction from the start field to the destination field using the A* algorithm.
+   * Finds the shortest path direction from the start field to the destination field using the selected algorithm.
    *
    * @param startField      the start field.
    * @param destinationField the destination field.
    * @return the direction of the shortest path from the start to the destination.
    */
   public CommonField.Direction findShortestPathDirection(CommonField startField, CommonField destinationField) {
-    // Initialize data structures for the A* algorithm
-    PriorityQueue<Node> openList = new PriorityQueue<>((a, b) -> {
-      int comparison = Integer.compare(a.fCost(), b.fCost());
-      if (comparison != 0) {
-        return comparison;
-      } else {
-        return Integer.compare(a.hCost, b.hCost);
+    int start = this.maze.indexOf(startField);
+    int destination = this.maze.indexOf(destinationField);
+    int firstStep = findFirstStep(start, destination);
+    if (firstStep < 0) {
+      // If the destination is not reachable, return STOP
+      return CommonField.Direction.STOP;
+    }
+    return getDirectionTo(start, firstStep, this.cols);
+  }
+
+  /**
+   * Finds the first cell on the shortest path from the start cell to the destination cell.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the first cell of the path, the start cell if it is the destination, or -1 if the destination is not
+   * reachable.
+   */
+  int findFirstStep(int start, int destination) {
+    if (!this.maze.isReachable(start, destination)) {
+      // the destination lies in another region, no search is needed
+      this.expandedNodes = 0;
+      return -1;
+    }
+    this.lastQueryMode = this.mode;
+    return switch (this.mode) {
+      case A_STAR, ALT -> search(start, destination, null) ? backtrackFirstStep(start, destination) : -1;
+      case JUMP_POINT -> searchJumpPoints(start, destination) ? backtrackFirstStep(start, destination) : -1;
+      case HIERARCHICAL -> searchHierarchy(start, destination);
+      case JUNCTION_GRAPH -> searchJunctions(start, destination);
+      case DISTANCE_ORACLE -> lookUpFirstStep(start, destination);
+    };
+  }
+
+  /**
+   * Finds the direction of the safest path from the start field to the destination field. Every move costs 1
+   * plus the danger of the entered cell, so the path keeps away from ghosts unless a detour costs more.
+   * The danger field of the maze is brought up to date with the ghosts first.
+   *
+   * @param startField       the start field.
+   * @param destinationField the destination field.
+   * @return the direction of the first move, or STOP if the destination is reached or not reachable.
+   */
+  public CommonField.Direction findSafeDirection(CommonField startField, CommonField destinationField) {
+    int start = this.maze.indexOf(startField);
+    int destination = this.maze.indexOf(destinationField);
+    this.expandedNodes = 0;
+    if (start == destination || !this.maze.isReachable(start, destination)) {
+      return CommonField.Direction.STOP;
+    }
+    DangerField danger = this.maze.getDangerField();
+    danger.update();
+    this.lastQueryMode = this.cellSearchMode();
+    // no move costs less than 1, so the distance estimates stay admissible
+    boolean found = search(start, destination, danger.costs());
+    return found ? getDirectionTo(start, backtrackFirstStep(start, destination), this.cols) : CommonField.Direction.STOP;
+  }
+
+  /**
+   * Finds the length of the shortest path between two cells.
+   * The hierarchical and junction graph modes do not keep the cost of the cells, so they are answered by A*.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the number of moves from the start to the destination, or -1 if it is not reachable.
+   */
+  int findPathLength(int start, int destination) {
+    if (!this.maze.isReachable(start, destination)) {
+      return -1;
+    }
+    if (start == destination) {
+      return 0;
+    }
+    DistanceOracle oracle = this.maze.getDistanceOracle();
+    if (this.mode == SearchMode.DISTANCE_ORACLE && oracle != null) {
+      this.expandedNodes = 0;
+      this.lastQueryMode = SearchMode.DISTANCE_ORACLE;
+      return oracle.distance(start, destination);
+    }
+    this.lastQueryMode = this.mode == SearchMode.JUMP_POINT ? SearchMode.JUMP_POINT : this.cellSearchMode();
+    boolean found = this.mode == SearchMode.JUMP_POINT
+      ? searchJumpPoints(start, destination)
+      : search(start, destination, null);
+    return found ? this.gCost[destination] : -1;
+  }
+
+  /**
+   * Finds the whole shortest path from the start field to the destination field.
+   *
+   * @param startField       the start field.
+   * @param destinationField the destination field.
+   * @return the cell indices of the path without the start cell, empty if the start is the destination,
+   * or null if the destination is not reachable.
+   */
+  public int[] findRoute(CommonField startField, CommonField destinationField) {
+    return findRoute(this.maze.indexOf(startField), this.maze.indexOf(destinationField));
+  }
+
+  /**
+   * Finds the whole shortest path between two cells.
+   * The hierarchical and junction graph modes only refine the first move of a path, so the route is found by
+   * Jump Point Search on the cells of the maze instead. Pacman asks for the first move on every move in these
+   * modes, see {@link #findShortestPathDirection}.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the cell indices of the path without the start cell, empty if the start is the destination,
+   * or null if the destination is not reachable.
+   */
+  int[] findRoute(int start, int destination) {
+    this.expandedNodes = 0;
+    if (!this.maze.isReachable(start, destination)) {
+      return null;
+    }
+    if (start == destination) {
+      return new int[0];
+    }
+    DistanceOracle oracle = this.maze.getDistanceOracle();
+    if (this.mode == SearchMode.DISTANCE_ORACLE && oracle != null) {
+      this.lastQueryMode = SearchMode.DISTANCE_ORACLE;
+      return followNextHops(oracle, start, destination);
+    }
+    boolean cellSearch = this.mode == SearchMode.A_STAR || this.mode == SearchMode.ALT;
+    this.lastQueryMode = cellSearch ? this.mode : SearchMode.JUMP_POINT;
+    boolean found = cellSearch
+      ? search(start, destination, null)
+      : searchJumpPoints(start, destination);
+    return found ? backtrackRoute(start, destination) : null;
+  }
+
+  /**
+   * Follows the parent array of a finished search back from the destination and collects all cells of the path.
+   * Jump points are connected by straight lines, the cells between them are filled in.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the cell indices of the path without the start cell.
+   */
+  private int[] backtrackRoute(int start, int destination) {
+    int[] route = new int[this.gCost[destination]];
+    int index = route.length;
+    int current = destination;
+    while (current != start) {
+      int previous = this.parent[current];
+      int step = stepTowards(current, previous);
+      while (current != previous) {
+        route[--index] = current;
+        current += step;
       }
-    });
-    Set<CommonField> closedList = new HashSet<>();
+    }
+    return route;
+  }
+
+  /**
+   * Collects the path between two cells from the next moves stored in the distance table.
+   *
+   * @param oracle      the distance table of the maze.
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the cell indices of the path without the start cell, or null if the destination is not reachable.
+   */
+  private int[] followNextHops(DistanceOracle oracle, int start, int destination) {
+    int length = oracle.distance(start, destination);
+    if (length == DistanceOracle.UNREACHABLE) {
+      return null;
+    }
+    int[] route = new int[length];
+    int current = start;
+    for (int i = 0; i < length; i++) {
+      current = oracle.nextHop(current, destination);
+      route[i] = current;
+    }
+    return route;
+  }
+
+  /**
+   * Follows the parent array of a finished search back from the destination to find the first move.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the first cell of the path, or the start cell if it is the destination.
+   */
+  private int backtrackFirstStep(int start, int destination) {
+    int current = destination;
+    while (current != start && this.parent[current] != start) {
+      current = this.parent[current];
+    }
+    if (current == start) {
+      return start;
+    }
+    // Jump points may be further away, step one cell towards the first of them
+    return start + stepTowards(start, current);
+  }
+
+  /**
+   * Finds the first move on the abstract graph of the maze.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the first cell of the path, the start cell if it is the destination, or -1 if the destination is not
+   * reachable.
+   */
+  private int searchHierarchy(int start, int destination) {
+    HierarchicalGraph hierarchy = this.maze.getHierarchy();
+    int firstStep = hierarchy.firstStep(start, destination);
+    this.expandedNodes = hierarchy.getExpandedNodes();
+    return firstStep;
+  }
+
+  /**
+   * Looks the first move up in the all-pairs distance table of the maze, or searches with A* if it is not built.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the first cell of the path, the start cell if it is the destination, or -1 if it is not reachable.
+   */
+  private int lookUpFirstStep(int start, int destination) {
+    DistanceOracle oracle = this.maze.getDistanceOracle();
+    if (oracle == null) {
+      this.lastQueryMode = SearchMode.A_STAR;
+      return search(start, destination, null) ? backtrackFirstStep(start, destination) : -1;
+    }
+    this.expandedNodes = 0;
+    return oracle.nextHop(start, destination);
+  }
+
+  /**
+   * Finds the first move on the junction graph of the maze.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return the first cell of the path, the start cell if it is the destination, or -1 if it is not reachable.
+   */
+  private int searchJunctions(int start, int destination) {
+    if (start == destination) {
+      this.expandedNodes = 0;
+      return start;
+    }
+    JunctionGraph junctions = this.maze.getJunctionGraph();
+    int direction = junctions.firstDirection(start, destination);
+    this.expandedNodes = junctions.getExpandedNodes();
+    if (direction < 0) {
+      return -1;
+    }
+    return start + DIRECTIONS[direction].deltaRow() * this.cols + DIRECTIONS[direction].deltaCol();
+  }
+
+  /**
+   * Returns the index offset of one step along the straight line between two cells.
+   *
+   * @param from the cell index to move from.
+   * @param to   the cell index in the same row or column.
+   * @return the index offset of one step towards the second cell.
+   */
+  private int stepTowards(int from, int to) {
+    if (from / this.cols == to / this.cols) {
+      return Integer.signum(to - from);
+    }
+    return Integer.signum(to - from) * this.cols;
+  }
 
-    // Add the start node to the open list
-    openList.add(new Node(startField, null, 0, manhattanDistance(startField, destinationField)));
+  /**
+   * Runs the A* search from the start cell until the destination cell is closed.
+   * On success the path can be read backwards from the parent array.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @param extraCost   the cost of entering every cell on top of the move itself, or null if all moves cost 1.
+   * @return true if the destination was reached, false otherwise.
+   */
+  private boolean search(int start, int destination, int[] extraCost) {
+    nextGeneration();
+    if (!this.maze.isWalkable(destination)) {
+      return false;
+    }
+    int gen = this.generation;
+    NeighborTable neighbors = this.maze.getNeighbors();
+    this.gCost[start] = 0;
+    this.parent[start] = -1;
+    this.seenStamp[start] = gen;
+    int startH = heuristic(start, destination);
+    this.openList.insertOrUpdate(start, startH, startH);
+    this.expandedNodes = 0;
 
     // Main A* loop
-    while (!openList.isEmpty()) {
-      Node currentNode = openList.poll();
-      CommonField currentField = currentNode.field;
+    while (!this.openList.isEmpty()) {
+      int current = this.openList.poll();
 
       // Check if the destination is reached
-      if (currentField.equals(destinationField)) {
-        // Backtrack to find the first move direction
-        Node previousNode = currentNode.parent;
-        while (previousNode != null && !previousNode.field.equals(startField)) {
-          currentNode = previousNode;
-          previousNode = currentNode.parent;
-        }
-
-        // Return the direction of the first move
-        return getDirectionTo(startField, currentNode.field);
+      if (current == destination) {
+        return true;
       }
 
-      // Mark the current node as visited
-      closedList.add(currentField);
+      // Mark the current cell as visited
+      this.closedStamp[current] = gen;
+      this.expandedNodes++;
 
-      // Loop through the neighbors
-      for (CommonField.Direction direction : CommonField.Direction.values()) {
-        CommonField neighborField = currentField.nextField(direction);
+      // Loop through the walkable neighbors
+      for (int open = neighbors.mask(current); open != 0; open &= open - 1) {
+        int neighbor = neighbors.neighbor(current, Integer.numberOfTrailingZeros(open));
 
-        // Ignore wall fields, out of bounds fields, and fields in the closed list
-        if (neighborField == null || !neighborField.canMove() || closedList.contains(neighborField)) {
+        // Ignore fields in the closed list
+        if (this.closedStamp[neighbor] == gen) {
+          continue;
+        }
+        int tentativeGCost = this.gCost[current] + 1 + (extraCost == null ? 0 : extraCost[neighbor]);
+        // Skip the neighbor if it is already open with a lower or equal cost
+        if (this.seenStamp[neighbor] == gen && this.gCost[neighbor] <= tentativeGCost) {
           continue;
         }
+        this.seenStamp[neighbor] = gen;
+        this.gCost[neighbor] = tentativeGCost;
+        this.parent[neighbor] = current;
+        int hCost = heuristic(neighbor, destination);
+        // Order by f cost, prefer cells closer to the destination on ties
+        this.openList.insertOrUpdate(neighbor, tentativeGCost + hCost, hCost);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Runs the Jump Point Search from the start cell until the destination cell is closed.
+   * The parent array links every jump point to the previous one, consecutive jump points always lie in
+   * the same row or column.
+   *
+   * @param start       the start cell index.
+   * @param destination the destination cell index.
+   * @return true if the destination was reached, false otherwise.
+   */
+  private boolean searchJumpPoints(int start, int destination) {
+    nextGeneration();
+    if (!this.maze.isWalkable(destination)) {
+      return false;
+    }
+    int gen = this.generation;
+    NeighborTable neighbors = this.maze.getNeighbors();
+    this.gCost[start] = 0;
+    this.parent[start] = -1;
+    this.seenStamp[start] = gen;
+    int startH = manhattanDistance(start, destination);
+    this.openList.insertOrUpdate(start, startH, startH);
+    this.expandedNodes = 0;
 
-        int tentativeGCost = currentNode.gCost + 1;
-        Node neighborNode = new Node(neighborField, currentNode, tentativeGCost, manhattanDistance(neighborField, destinationField));
+    while (!this.openList.isEmpty()) {
+      int current = this.openList.poll();
+      if (current == destination) {
+        return true;
+      }
+      this.closedStamp[current] = gen;
+      this.expandedNodes++;
 
-        // Check if the node is already in the open list with a lower fcost
-        boolean shouldSkipNode = false;
-        for (Node nodeInOpenList : openList) {
-          if (nodeInOpenList.field.equals(neighborField) && nodeInOpenList.fCost() <= neighborNode.fCost()) {
-            shouldSkipNode = true;
-            break;
-          }
+      for (CommonField.Direction direction : DIRECTIONS) {
+        if (isPruned(current, direction)) {
+          continue;
+        }
+        int jumpPoint = jump(current, direction.deltaRow(), direction.deltaCol(), destination);
+        if (jumpPoint < 0 || this.closedStamp[jumpPoint] == gen) {
+          continue;
         }
-        if (shouldSkipNode) {
+        int tentativeGCost = this.gCost[current] + manhattanDistance(current, jumpPoint);
+        if (this.seenStamp[jumpPoint] == gen && this.gCost[jumpPoint] <= tentativeGCost) {
           continue;
         }
+        this.seenStamp[jumpPoint] = gen;
+        this.gCost[jumpPoint] = tentativeGCost;
+        this.parent[jumpPoint] = current;
+        int hCost = manhattanDistance(jumpPoint, destination);
+        this.openList.insertOrUpdate(jumpPoint, tentativeGCost + hCost, hCost);
+      }
+    }
+    return false;
+  }
 
-        // Add the neighbor node to the open list
-        openList.add(neighborNode);
+  /**
+   * Checks if the jump point should not be expanded in the specified direction.
+   * Jump points continue straight and turn to both sides, only the way back is pruned.
+   *
+   * @param cell      the cell index of the jump point.
+   * @param direction the direction to expand.
+   * @return true if the direction leads back to the previous jump point, false otherwise.
+   */
+  private boolean isPruned(int cell, CommonField.Direction direction) {
+    int from = this.parent[cell];
+    if (from < 0) {
+      // the start cell expands in all directions
+      return false;
+    }
+    return direction.deltaRow() * this.cols + direction.deltaCol() == -stepTowards(from, cell);
+  }
+
+  /**
+   * Travels from the cell in a straight line until a jump point is found.
+   *
+   * @param cell        the cell index to jump from.
+   * @param deltaRow    the row step of the direction.
+   * @param deltaCol    the column step of the direction.
+   * @param destination the destination cell index.
+   * @return the cell index of the jump point, or -1 if the line ends in a wall.
+   */
+  private int jump(int cell, int deltaRow, int deltaCol, int destination) {
+    int step = deltaRow * this.cols + deltaCol;
+    int current = cell + step;
+    while (this.maze.isWalkable(current)) {
+      if (current == destination) {
+        return current;
+      }
+      if (deltaRow == 0) {
+        // horizontal travel stops where a cell above or below opens up
+        if (hasForcedNeighbor(current, step, -this.cols) || hasForcedNeighbor(current, step, this.cols)) {
+          return current;
+        }
+      } else {
+        // vertical travel stops where a cell on the side opens up
+        if (hasForcedNeighbor(current, step, -1) || hasForcedNeighbor(current, step, 1)) {
+          return current;
+        }
+        // or where a horizontal jump would find a jump point
+        if (jump(current, 0, -1, destination) >= 0 || jump(current, 0, 1, destination) >= 0) {
+          return current;
+        }
       }
+      current += step;
     }
+    return -1;
+  }
 
-    // If the destination is not reachable, return STOP
-    return CommonField.Direction.STOP;
+  /**
+   * Checks if a cell reached by a straight travel has a forced neighbor on the specified side.
+   *
+   * @param cell the cell index.
+   * @param step the index offset of the travel.
+   * @param side the index offset of the side, perpendicular to the travel.
+   * @return true if the side cell is open and the side cell of the previous cell is blocked.
+   */
+  private boolean hasForcedNeighbor(int cell, int step, int side) {
+    return this.maze.isWalkable(cell + side) && !this.maze.isWalkable(cell - step + side);
   }
 }
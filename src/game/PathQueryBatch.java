@@ -0,0 +1,134 @@
+package src.game;
+
+import src.game.resources.SearchMode;
+import src.tool.common.CommonField;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Answers many shortest path length queries on one maze in parallel.
+ * The queries are split into chunks that run as tasks on a {@link ForkJoinPool}. Every task borrows a path
+ * finder with its own search buffers, so the workers never share scratch state and no buffers are allocated
+ * once every worker has its own path finder. The path finders run Jump Point Search, which finds exact lengths.
+ * The maze must not change while a batch is running.
+ */
+public class PathQueryBatch {
+  /**
+   * The result of a query whose destination is not reachable from its start.
+   */
+  public static final int UNREACHABLE = -1;
+  // queries answered by one task without splitting
+  private static final int CHUNK_SIZE = 64;
+
+  private final Maze maze;
+  private final ForkJoinPool pool;
+  // path finders not borrowed by any task
+  private final ConcurrentLinkedQueue<PathFinder> pathFinders;
+
+  /**
+   * Constructs a batch for the specified maze running on the common pool.
+   *
+   * @param maze the maze to search in.
+   */
+  public PathQueryBatch(Maze maze) {
+    this(maze, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a batch for the specified maze running on the specified pool.
+   *
+   * @param maze the maze to search in.
+   * @param pool the pool the queries run on.
+   */
+  public PathQueryBatch(Maze maze, ForkJoinPool pool) {
+    this.maze = maze;
+    this.pool = pool;
+    this.pathFinders = new ConcurrentLinkedQueue<>();
+  }
+
+  /**
+   * Finds the lengths of the shortest paths between pairs of cells.
+   *
+   * @param starts       the start cell index of every query.
+   * @param destinations the destination cell index of every query.
+   * @return the number of moves of every query in the order of the queries, or {@link #UNREACHABLE}.
+   * @throws IllegalArgumentException if the number of starts and destinations differ.
+   */
+  public int[] distances(int[] starts, int[] destinations) {
+    if (starts.length != destinations.length) {
+      throw new IllegalArgumentException("Every query needs a start and a destination");
+    }
+    int[] results = new int[starts.length];
+    this.pool.invoke(new QueryTask(starts, destinations, results, 0, starts.length));
+    return results;
+  }
+
+  /**
+   * Finds the lengths of the shortest paths between pairs of fields.
+   *
+   * @param starts       the start field of every query.
+   * @param destinations the destination field of every query.
+   * @return the number of moves of every query in the order of the queries, or {@link #UNREACHABLE}.
+   * @throws IllegalArgumentException if the number of starts and destinations differ.
+   */
+  public int[] distances(CommonField[] starts, CommonField[] destinations) {
+    int[] startCells = new int[starts.length];
+    int[] destinationCells = new int[destinations.length];
+    for (int i = 0; i < starts.length; i++) {
+      startCells[i] = this.maze.indexOf(starts[i]);
+    }
+    for (int i = 0; i < destinations.length; i++) {
+      destinationCells[i] = this.maze.indexOf(destinations[i]);
+    }
+    return distances(startCells, destinationCells);
+  }
+
+  private PathFinder borrowPathFinder() {
+    PathFinder pathFinder = this.pathFinders.poll();
+    if (pathFinder == null) {
+      pathFinder = new PathFinder(this.maze);
+      pathFinder.setMode(SearchMode.JUMP_POINT);
+    }
+    return pathFinder;
+  }
+
+  /**
+   * Answers a range of the queries, splitting it in halves until it is small enough.
+   */
+  private class QueryTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final int[] starts;
+    private final int[] destinations;
+    private final int[] results;
+    private final int from;
+    private final int to;
+
+    QueryTask(int[] starts, int[] destinations, int[] results, int from, int to) {
+      this.starts = starts;
+      this.destinations = destinations;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.to - this.from > CHUNK_SIZE) {
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new QueryTask(this.starts, this.destinations, this.results, this.from, middle),
+          new QueryTask(this.starts, this.destinations, this.results, middle, this.to));
+        return;
+      }
+      PathFinder pathFinder = borrowPathFinder();
+      try {
+        for (int i = this.from; i < this.to; i++) {
+          this.results[i] = pathFinder.findPathLength(this.starts[i], this.destinations[i]);
+        }
+      } finally {
+        pathFinders.add(pathFinder);
+      }
+    }
+  }
+}
@@ -0,0 +1,366 @@
+package src.game;
+
+import src.game.resources.GhostMode;
+import src.tool.common.CommonField;
+import src.tool.common.CommonMazeObject;
+
+/**
+ * Plans collision-free moves of several agents over space and time, used by the ghosts in the
+ * {@link GhostMode#COORDINATED} mode to chase Pacman without running into each other.
+ * Every round the agents are planned one after another with an A* search over (cell, tick) states, where an agent
+ * may also wait in its cell. Each planned path is written to a shared reservation table, so later agents neither
+ * enter a cell reserved for the same tick nor swap cells with another agent. The searches only look a few ticks
+ * ahead and the remaining distance is taken from the distance field of the goal, so they stay small.
+ * A cell taken by an agent that is not planned yet is kept free for the first tick, so every agent can at least
+ * wait where it is.
+ * A round has a time budget, agents that are not planned when it runs out only take a free neighboring cell.
+ * The order of the agents rotates every round, so the same agents do not always come last.
+ * The algorithm is based on Windowed Hierarchical Cooperative A* from: D. Silver, Cooperative Pathfinding,
+ * AIIDE 2005.
+ */
+public class SpaceTimePlanner {
+  public static final int DEFAULT_WINDOW = 8;
+  public static final long DEFAULT_TIME_BUDGET = 2_000_000L;
+  // states one search may create
+  static final int NODE_LIMIT = 1024;
+
+  private final Maze maze;
+  private final int cols;
+  // agent reserving every cell at every tick of the round
+  private SpaceTimeTable reservations;
+  private int reservationCapacity;
+  // search state of the agent being planned, the visited table maps (cell, tick) to a node
+  private final SpaceTimeTable visited;
+  private final IndexedHeap openList;
+  private final int[] nodeCell;
+  private final int[] nodeTime;
+  private final int[] nodeCost;
+  private final int[] nodeParent;
+  private int nodeCount;
+  private int window;
+  private long timeBudget;
+  // plans of the last round by agent
+  private GhostObject[] agents;
+  private int agentCount;
+  private int[] plannedStart;
+  private CommonField.Direction[] plannedMove;
+  private boolean[] taken;
+  private boolean[] planned;
+  private int firstAgent;
+  private int plannedAgents;
+
+  /**
+   * Constructs a planner with the default window and time budget for the specified maze.
+   *
+   * @param maze the maze to plan in.
+   */
+  public SpaceTimePlanner(Maze maze) {
+    this.maze = maze;
+    this.cols = maze.numCols();
+    this.reservationCapacity = 0;
+    this.reservations = null;
+    this.visited = new SpaceTimeTable(5 * NODE_LIMIT);
+    this.openList = new IndexedHeap(NODE_LIMIT);
+    this.nodeCell = new int[NODE_LIMIT];
+    this.nodeTime = new int[NODE_LIMIT];
+    this.nodeCost = new int[NODE_LIMIT];
+    this.nodeParent = new int[NODE_LIMIT];
+    this.window = DEFAULT_WINDOW;
+    this.timeBudget = DEFAULT_TIME_BUDGET;
+    this.agents = new GhostObject[0];
+    this.agentCount = 0;
+    this.plannedStart = new int[0];
+    this.plannedMove = new CommonField.Direction[0];
+    this.taken = new boolean[0];
+    this.planned = new boolean[0];
+    this.firstAgent = 0;
+    this.plannedAgents = 0;
+  }
+
+  /**
+   * Sets how many ticks ahead the agents are planned.
+   *
+   * @param window the number of ticks, at least 1.
+   */
+  public void setWindow(int window) {
+    this.window = Math.max(window, 1);
+    this.reservationCapacity = 0;
+  }
+
+  /**
+   * Returns how many ticks ahead the agents are planned.
+   *
+   * @return the number of ticks.
+   */
+  public int getWindow() {
+    return this.window;
+  }
+
+  /**
+   * Sets the time one round of planning may take.
+   *
+   * @param nanos the time budget in nanoseconds.
+   */
+  public void setTimeBudget(long nanos) {
+    this.timeBudget = nanos;
+  }
+
+  /**
+   * Returns the time one round of planning may take.
+   *
+   * @return the time budget in nanoseconds.
+   */
+  public long getTimeBudget() {
+    return this.timeBudget;
+  }
+
+  /**
+   * Returns the number of agents planned by a search in the last round, the others only took a free cell.
+   *
+   * @return the number of planned agents.
+   */
+  public int getPlannedAgents() {
+    return this.plannedAgents;
+  }
+
+  /**
+   * Returns the direction of the next move of the ghost. A new round is planned for all coordinated ghosts
+   * when the ghost has already taken its move of the last round or is no longer where the round expected it.
+   *
+   * @param ghost the ghost in the coordinated mode.
+   * @return the direction of the next move, STOP to wait, or null if the ghost has no goal.
+   */
+  CommonField.Direction nextDirection(GhostObject ghost) {
+    int agent = indexOf(ghost);
+    if (agent < 0 || this.taken[agent] || this.plannedStart[agent] != this.maze.indexOf(ghost.getField())) {
+      planRound();
+      agent = indexOf(ghost);
+      if (agent < 0) {
+        return null;
+      }
+    }
+    this.taken[agent] = true;
+    return this.plannedMove[agent];
+  }
+
+  private int indexOf(GhostObject ghost) {
+    for (int i = 0; i < this.agentCount; i++) {
+      if (this.agents[i] == ghost) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Plans the next moves of all coordinated ghosts towards Pacman.
+   */
+  public void planRound() {
+    collectAgents();
+    PacmanObject pacman = this.maze.getPacman();
+    if (this.agentCount == 0 || pacman == null || pacman.getField() == null) {
+      this.agentCount = 0;
+      return;
+    }
+    int goal = this.maze.indexOf(pacman.getField());
+    int[] distances = this.maze.getDistanceFields().distancesTo(goal);
+    int needed = this.agentCount * (this.window + 2);
+    if (needed > this.reservationCapacity) {
+      this.reservationCapacity = Math.max(needed, 2 * this.reservationCapacity);
+      this.reservations = new SpaceTimeTable(this.reservationCapacity);
+    }
+    this.reservations.clear();
+    for (int agent = 0; agent < this.agentCount; agent++) {
+      this.reservations.put(this.plannedStart[agent], 0, agent);
+    }
+    this.plannedAgents = 0;
+    long deadline = System.nanoTime() + this.timeBudget;
+    for (int i = 0; i < this.agentCount; i++) {
+      int agent = (this.firstAgent + i) % this.agentCount;
+      if (System.nanoTime() < deadline && distances[this.plannedStart[agent]] != DistanceFieldCache.UNREACHABLE) {
+        planAgent(agent, goal, distances);
+        this.plannedAgents++;
+      } else {
+        stepAside(agent);
+      }
+      this.planned[agent] = true;
+    }
+    this.firstAgent = (this.firstAgent + 1) % this.agentCount;
+  }
+
+  /**
+   * Collects the ghosts of the maze in the coordinated mode together with their cells.
+   */
+  private void collectAgents() {
+    int count = 0;
+    for (CommonMazeObject ghost : this.maze.listOfGhosts) {
+      GhostObject coordinated = (GhostObject) ghost;
+      if (coordinated.getMode() == GhostMode.COORDINATED && coordinated.getField() != null) {
+        count++;
+      }
+    }
+    if (count > this.agents.length) {
+      this.agents = new GhostObject[count];
+      this.plannedStart = new int[count];
+      this.plannedMove = new CommonField.Direction[count];
+      this.taken = new boolean[count];
+      this.planned = new boolean[count];
+    }
+    this.agentCount = 0;
+    for (CommonMazeObject ghost : this.maze.listOfGhosts) {
+      GhostObject coordinated = (GhostObject) ghost;
+      if (coordinated.getMode() == GhostMode.COORDINATED && coordinated.getField() != null) {
+        this.agents[this.agentCount] = coordinated;
+        this.plannedStart[this.agentCount] = this.maze.indexOf(coordinated.getField());
+        this.plannedMove[this.agentCount] = CommonField.Direction.STOP;
+        this.taken[this.agentCount] = false;
+        this.planned[this.agentCount] = false;
+        this.agentCount++;
+      }
+    }
+    if (this.firstAgent >= Math.max(this.agentCount, 1)) {
+      this.firstAgent = 0;
+    }
+  }
+
+  /**
+   * Checks if the agent can move between two cells from one tick to the next without a collision.
+   *
+   * @param agent the agent.
+   * @param from  the cell index at the tick.
+   * @param to    the cell index at the next tick.
+   * @param tick  the tick the move starts at.
+   * @return true if the cell is not reserved by another agent and no other agent comes the opposite way.
+   */
+  private boolean isFree(int agent, int from, int to, int tick) {
+    int owner = this.reservations.get(to, tick + 1);
+    if (owner != SpaceTimeTable.ABSENT && owner != agent) {
+      return false;
+    }
+    int oncoming = this.reservations.get(to, tick);
+    if (tick == 0 && oncoming != SpaceTimeTable.ABSENT && oncoming != agent && !this.planned[oncoming]) {
+      // the agent in the cell is planned later and must be able to wait there
+      return false;
+    }
+    return oncoming == SpaceTimeTable.ABSENT || oncoming == agent || this.reservations.get(from, tick + 1) != oncoming;
+  }
+
+  private int neighbor(int cell, int move) {
+    // the last move is waiting in the cell
+    if (move == PathFinder.DIRECTIONS.length) {
+      return cell;
+    }
+    CommonField.Direction direction = PathFinder.DIRECTIONS[move];
+    return cell + direction.deltaRow() * this.cols + direction.deltaCol();
+  }
+
+  private int addNode(int cell, int tick, int cost, int parent) {
+    int node = this.nodeCount++;
+    this.nodeCell[node] = cell;
+    this.nodeTime[node] = tick;
+    this.nodeCost[node] = cost;
+    this.nodeParent[node] = parent;
+    this.visited.put(cell, tick, node);
+    return node;
+  }
+
+  /**
+   * Searches the (cell, tick) states of the agent until it reaches the goal or the end of the window, then
+   * reserves the cells of the found path.
+   *
+   * @param agent     the agent.
+   * @param goal      the goal cell index.
+   * @param distances the distance of every cell to the goal.
+   */
+  private void planAgent(int agent, int goal, int[] distances) {
+    int start = this.plannedStart[agent];
+    this.visited.clear();
+    this.openList.clear();
+    this.nodeCount = 0;
+    int root = addNode(start, 0, 0, -1);
+    this.openList.insertOrUpdate(root, distances[start], distances[start]);
+    int best = root;
+    while (!this.openList.isEmpty()) {
+      int node = this.openList.poll();
+      int cell = this.nodeCell[node];
+      int tick = this.nodeTime[node];
+      if (tick > 0) {
+        // keep the state closest to the goal in case the search runs out of states
+        if (best == root || distances[cell] < distances[this.nodeCell[best]]
+          || (distances[cell] == distances[this.nodeCell[best]] && tick > this.nodeTime[best])) {
+          best = node;
+        }
+        // an agent already on the goal still has to check that it may stay there
+        if (cell == goal || tick == this.window) {
+          best = node;
+          break;
+        }
+      }
+      for (int move = 0; move <= PathFinder.DIRECTIONS.length; move++) {
+        int next = neighbor(cell, move);
+        if (!this.maze.isWalkable(next) || !isFree(agent, cell, next, tick)) {
+          continue;
+        }
+        int cost = this.nodeCost[node] + 1;
+        int h = distances[next];
+        int child = this.visited.get(next, tick + 1);
+        if (child == SpaceTimeTable.ABSENT) {
+          if (this.nodeCount == NODE_LIMIT) {
+            continue;
+          }
+          child = addNode(next, tick + 1, cost, node);
+        } else if (this.nodeCost[child] <= cost) {
+          continue;
+        } else {
+          this.nodeCost[child] = cost;
+          this.nodeParent[child] = node;
+        }
+        // order by f cost, prefer states closer to the goal on ties
+        this.openList.insertOrUpdate(child, cost + h, h);
+      }
+    }
+    reservePath(agent, best);
+  }
+
+  /**
+   * Reserves the cells of the path ending in the node and records the first move of the agent.
+   * An agent that stops before the end of the window keeps its last cell reserved as long as it is free.
+   *
+   * @param agent the agent.
+   * @param last  the last node of the path.
+   */
+  private void reservePath(int agent, int last) {
+    int end = this.nodeCell[last];
+    for (int tick = this.nodeTime[last] + 1; tick <= this.window; tick++) {
+      int owner = this.reservations.get(end, tick);
+      if (owner != SpaceTimeTable.ABSENT && owner != agent) {
+        break;
+      }
+      this.reservations.put(end, tick, agent);
+    }
+    int first = last;
+    for (int node = last; this.nodeParent[node] >= 0; node = this.nodeParent[node]) {
+      this.reservations.put(this.nodeCell[node], this.nodeTime[node], agent);
+      first = node;
+    }
+    this.plannedMove[agent] = PathFinder.getDirectionTo(this.plannedStart[agent], this.nodeCell[first], this.cols);
+  }
+
+  /**
+   * Moves an agent that was not planned to the first cell that is free at the next tick, waiting if possible.
+   *
+   * @param agent the agent.
+   */
+  private void stepAside(int agent) {
+    int start = this.plannedStart[agent];
+    for (int move = PathFinder.DIRECTIONS.length; move >= 0; move--) {
+      int next = neighbor(start, move);
+      if (this.maze.isWalkable(next) && isFree(agent, start, next, 0)) {
+        this.reservations.put(next, 1, agent);
+        this.plannedMove[agent] = PathFinder.getDirectionTo(start, next, this.cols);
+        return;
+      }
+    }
+    this.plannedMove[agent] = CommonField.Direction.STOP;
+  }
+}
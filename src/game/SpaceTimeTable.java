@@ -0,0 +1,118 @@
+package src.game;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from time-indexed cells to int values, used for the reservations of the space-time planner and
+ * for the states of its searches.
+ * A cell at a tick is packed into a single long key and stored with open addressing in flat arrays, so neither
+ * lookups nor insertions allocate. Entries carry the generation they were written in, clearing the map only
+ * starts a new generation.
+ */
+class SpaceTimeTable {
+  static final int ABSENT = -1;
+
+  private final long[] keys;
+  private final int[] values;
+  private final int[] stamps;
+  private final int mask;
+  private int generation;
+  private int size;
+
+  /**
+   * Constructs an empty map that holds at least the specified number of entries.
+   *
+   * @param capacity the number of entries the map must hold.
+   */
+  SpaceTimeTable(int capacity) {
+    // keep the load factor at most one half
+    int slots = Integer.highestOneBit(Math.max(2 * capacity - 1, 1)) << 1;
+    this.keys = new long[slots];
+    this.values = new int[slots];
+    this.stamps = new int[slots];
+    this.mask = slots - 1;
+    this.generation = 1;
+    this.size = 0;
+  }
+
+  private static long key(int cell, int tick) {
+    return ((long) tick << Integer.SIZE) | (cell & 0xFFFFFFFFL);
+  }
+
+  private int slotOf(long key) {
+    // spread the bits of the cell and the tick over the whole slot range
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & this.mask;
+  }
+
+  /**
+   * Returns the number of entries in the map.
+   *
+   * @return the number of entries.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Checks if the map cannot take another entry without degrading.
+   *
+   * @return true if the map is half full.
+   */
+  boolean isFull() {
+    return 2 * this.size >= this.keys.length;
+  }
+
+  /**
+   * Removes all entries.
+   */
+  void clear() {
+    this.size = 0;
+    this.generation++;
+    if (this.generation == 0) {
+      // the counter overflowed, entries from old generations could collide with the new one
+      Arrays.fill(this.stamps, 0);
+      this.generation = 1;
+    }
+  }
+
+  /**
+   * Returns the value of the cell at the tick.
+   *
+   * @param cell the cell index.
+   * @param tick the tick.
+   * @return the value, or {@link #ABSENT} if there is none.
+   */
+  int get(int cell, int tick) {
+    long key = key(cell, tick);
+    for (int slot = slotOf(key); this.stamps[slot] == this.generation; slot = (slot + 1) & this.mask) {
+      if (this.keys[slot] == key) {
+        return this.values[slot];
+      }
+    }
+    return ABSENT;
+  }
+
+  /**
+   * Sets the value of the cell at the tick, replacing the previous value.
+   *
+   * @param cell  the cell index.
+   * @param tick  the tick.
+   * @param value the value, not {@link #ABSENT}.
+   */
+  void put(int cell, int tick, int value) {
+    long key = key(cell, tick);
+    int slot = slotOf(key);
+    while (this.stamps[slot] == this.generation) {
+      if (this.keys[slot] == key) {
+        this.values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    this.stamps[slot] = this.generation;
+    this.keys[slot] = key;
+    this.values[slot] = value;
+    this.size++;
+  }
+}
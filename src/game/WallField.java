@@ -5,42 +5,54 @@ import src.tool.common.CommonField;
 import src.tool.common.CommonMaze;
 import src.tool.common.CommonMazeObject;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * Represents a field in the maze that cannot contain objects.
  * The field is part of the playing field of the game.
+ * The field is a view of one cell of the {@link MazeGrid} of its maze and keeps no state of its own.
  * @author Gabriel Biel
  * @author Jakub Mikysek
  */
 public class WallField implements CommonField {
-  private final Coordinate coordinate;
-  private final Set<Observer> observers = new HashSet();
-  private CommonMaze maze;
+  private final CommonMaze maze;
+  private final int index;
+  // created on first use, the maze hands out one view per cell so the coordinate is shared by all its users
+  private Coordinate coordinate;
 
   /**
-   * Constructs a new WallField with the specified coordinates.
+   * Constructs a view of the specified cell of the maze.
    *
-   * @param x the x-coordinate of the WallField.
-   * @param y the y-coordinate of the WallField.
+   * @param maze  the maze containing this WallField.
+   * @param index the cell index of the WallField.
    */
-  public WallField(int x, int y) {
-    this.coordinate = new Coordinate(x, y);
+  WallField(CommonMaze maze, int index) {
+    this.maze = maze;
+    this.index = index;
   }
 
-  @Override
-  public Coordinate getCoordinate() {
-    return this.coordinate;
+  /**
+   * Returns the cell index of the WallField.
+   *
+   * @return the cell index of the WallField.
+   */
+  int index() {
+    return this.index;
   }
 
   /**
-   * Sets the CommonMaze object that contains this WallField.
+   * Returns the maze that contains this WallField.
    *
-   * @param maze the CommonMaze object to set.
+   * @return the maze that contains this WallField.
    */
-  public void setMaze(CommonMaze maze) {
-    this.maze = maze;
+  public CommonMaze getMaze() {
+    return this.maze;
+  }
+
+  @Override
+  public Coordinate getCoordinate() {
+    if (this.coordinate == null) {
+      this.coordinate = new Coordinate(this.index / this.maze.numCols(), this.index % this.maze.numCols());
+    }
+    return this.coordinate;
   }
 
   @Override
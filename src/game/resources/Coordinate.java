@@ -1,14 +1,14 @@
 package src.game.resources;
 
-import java.util.Objects;
-
 /**
  * Represents a coordinate in a two-dimensional space.
+ * A coordinate can also be packed into a single long, which is usable as a primitive map key and is compared
+ * without any allocation.
  * @author Gabriel Biel
  */
 public class Coordinate {
-  private int x;
-  private int y;
+  private final int x;
+  private final int y;
 
   /**
    * Constructs a Coordinate object with the specified x and y values.
@@ -39,6 +39,46 @@ public class Coordinate {
     return y;
   }
 
+  /**
+   * Packs the x and y values into a single long.
+   *
+   * @param x the x-coordinate value
+   * @param y the y-coordinate value
+   * @return the x value in the upper and the y value in the lower 32 bits
+   */
+  public static long pack(int x, int y) {
+    return ((long) x << Integer.SIZE) | (y & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Retrieves the x-coordinate value of a packed coordinate.
+   *
+   * @param packed the packed coordinate
+   * @return the x-coordinate value
+   */
+  public static int unpackX(long packed) {
+    return (int) (packed >> Integer.SIZE);
+  }
+
+  /**
+   * Retrieves the y-coordinate value of a packed coordinate.
+   *
+   * @param packed the packed coordinate
+   * @return the y-coordinate value
+   */
+  public static int unpackY(long packed) {
+    return (int) packed;
+  }
+
+  /**
+   * Packs this coordinate into a single long.
+   *
+   * @return the packed coordinate
+   */
+  public long pack() {
+    return pack(this.x, this.y);
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (this == obj) {
@@ -53,6 +93,7 @@ public class Coordinate {
 
   @Override
   public int hashCode() {
-    return Objects.hash(x, y);
+    // the same spread as Objects.hash, without boxing the values into an array
+    return 31 * (31 + this.x) + this.y;
   }
 }
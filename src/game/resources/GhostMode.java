@@ -0,0 +1,20 @@
+package src.game.resources;
+
+/**
+ * Represents the ways a ghost chooses its direction.
+ */
+public enum GhostMode {
+  /**
+   * The ghost wanders randomly and prefers going straight.
+   */
+  RANDOM,
+  /**
+   * The ghost follows the shortest path to Pacman.
+   */
+  CHASE,
+  /**
+   * The ghost chases Pacman along a path planned together with the other coordinated ghosts, so that no two
+   * of them enter the same field at the same time.
+   */
+  COORDINATED
+}
@@ -0,0 +1,23 @@
+package src.game.resources;
+
+/**
+ * Represents the planners Pacman can use to reach a field selected by a mouse click.
+ */
+public enum PlannerType {
+  /**
+   * Searches the whole route with the maze path finder once per go-to field and follows it.
+   */
+  A_STAR,
+  /**
+   * Follows a cached breadth-first distance field of the destination.
+   */
+  DISTANCE_FIELD,
+  /**
+   * Keeps an incremental D* Lite search between moves and repairs it when ghosts block or free fields.
+   */
+  D_STAR_LITE,
+  /**
+   * Runs an A* search weighted by the danger of the fields around the ghosts on every move.
+   */
+  SAFE_ROUTE
+}
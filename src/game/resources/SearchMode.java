@@ -0,0 +1,31 @@
+package src.game.resources;
+
+/**
+ * Represents the search algorithms the path finder can use.
+ */
+public enum SearchMode {
+  /**
+   * Plain A* search expanding every neighboring cell.
+   */
+  A_STAR,
+  /**
+   * Jump Point Search, A* expanding only the cells where the path may turn.
+   */
+  JUMP_POINT,
+  /**
+   * Hierarchical A* on the graph of cluster entrances of the maze, near optimal.
+   */
+  HIERARCHICAL,
+  /**
+   * A* on the graph of junctions and dead ends, with every corridor contracted into one weighted edge.
+   */
+  JUNCTION_GRAPH,
+  /**
+   * A* with the landmark (ALT) heuristic, a tighter lower bound than the Manhattan distance in winding mazes.
+   */
+  ALT,
+  /**
+   * Looks the next move up in the all-pairs distance table of the maze, falls back to A* if it is not built.
+   */
+  DISTANCE_ORACLE
+}
@@ -0,0 +1,96 @@
+package src.tool.benchmarks;
+
+import src.game.DistanceOracle;
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PathFinder;
+import src.game.resources.SearchMode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Compares the search modes of the path finder.
+ * For every maze the same random pairs of walkable cells are searched by every mode and the number of
+ * expanded nodes and the average query latency are printed.
+ */
+public class SearchModeBenchmark {
+  private static final String[] DEFAULT_MAZES = {
+    "src/tool/tests/maps/maze/hard",
+    "src/tool/tests/maps/valid/valid40x40",
+    "data/maze4"
+  };
+  private static final int QUERIES = 2000;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 10;
+
+  /**
+   * Runs the benchmark on the mazes given as arguments, or on the default mazes.
+   *
+   * @param args paths to the maze files.
+   */
+  public static void main(String[] args) {
+    String[] mazes = args.length > 0 ? args : DEFAULT_MAZES;
+    System.out.printf("%-40s %-14s %14s %14s%n", "maze", "mode", "expanded/query", "us/query");
+    for (String mazeFile : mazes) {
+      Maze maze = loadMaze(Path.of(mazeFile));
+      if (maze == null) {
+        System.out.println("Error while loading maze " + mazeFile);
+        continue;
+      }
+      // the distance oracle mode only looks moves up if the table is built
+      maze.buildDistanceOracle(DistanceOracle.DEFAULT_CELL_BUDGET);
+      int[] queries = createQueries(maze);
+      for (SearchMode mode : SearchMode.values()) {
+        PathFinder pathFinder = new PathFinder(maze);
+        pathFinder.setMode(mode);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+          runQueries(maze, pathFinder, queries);
+        }
+        long expanded = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+          expanded += runQueries(maze, pathFinder, queries);
+        }
+        long elapsed = System.nanoTime() - start;
+        long total = (long) MEASURED_ROUNDS * QUERIES;
+        System.out.printf("%-40s %-14s %14.1f %14.2f%n", mazeFile, mode,
+          (double) expanded / total, elapsed / 1000.0 / total);
+      }
+    }
+  }
+
+  private static long runQueries(Maze maze, PathFinder pathFinder, int[] queries) {
+    long expanded = 0;
+    for (int i = 0; i < queries.length; i += 2) {
+      pathFinder.findShortestPathDirection(maze.fieldAt(queries[i]), maze.fieldAt(queries[i + 1]));
+      expanded += pathFinder.getExpandedNodes();
+    }
+    return expanded;
+  }
+
+  private static int[] createQueries(Maze maze) {
+    Random random = new Random(42);
+    int[] queries = new int[2 * QUERIES];
+    for (int i = 0; i < queries.length; i++) {
+      int cell;
+      do {
+        cell = random.nextInt(maze.numCells());
+      } while (!maze.isWalkable(cell));
+      queries[i] = cell;
+    }
+    return queries;
+  }
+
+  private static Maze loadMaze(Path pathToMaze) {
+    try (InputStream inputStream = Files.newInputStream(pathToMaze)) {
+      return (Maze) new MazeConfigure().loadMaze(inputStream);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+}
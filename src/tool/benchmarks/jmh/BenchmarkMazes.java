@@ -0,0 +1,52 @@
+package src.tool.benchmarks.jmh;
+
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.tool.common.CommonField;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Loads the mazes the benchmarks run on.
+ */
+final class BenchmarkMazes {
+
+  private BenchmarkMazes() {
+  }
+
+  /**
+   * Loads the maze from the file.
+   *
+   * @param pathToMaze the path to the maze file.
+   * @return the loaded maze.
+   * @throws IOException if the file cannot be read or does not contain a valid maze.
+   */
+  static Maze load(Path pathToMaze) throws IOException {
+    try (InputStream inputStream = Files.newInputStream(pathToMaze)) {
+      Maze maze = (Maze) new MazeConfigure().loadMaze(inputStream);
+      if (maze == null) {
+        throw new IOException("Invalid maze " + pathToMaze);
+      }
+      return maze;
+    }
+  }
+
+  /**
+   * Picks a random walkable field of the maze.
+   *
+   * @param maze   the maze to pick the field from.
+   * @param random the source of randomness.
+   * @return the walkable field.
+   */
+  static CommonField randomWalkableField(Maze maze, Random random) {
+    int cell;
+    do {
+      cell = random.nextInt(maze.numCells());
+    } while (!maze.isWalkable(cell));
+    return maze.fieldAt(cell);
+  }
+}
@@ -0,0 +1,93 @@
+package src.tool.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import src.game.GameRecorder;
+import src.game.Maze;
+import src.tool.common.CommonMazeObject;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures capturing the state of all maze objects, both kept in memory and written to the game log.
+ * A new recorder is created for every iteration, so the recorded states do not pile up across iterations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GameRecorderBenchmark {
+
+  @Param({"data/maze0", "data/maze4", "src/tool/tests/maps/valid/valid40x40"})
+  public String layout;
+
+  private List<CommonMazeObject> allMazeObjects;
+  private GameRecorder recorder;
+
+  /**
+   * Loads the maze and collects its objects in the same order as the game does.
+   *
+   * @throws IOException if the maze cannot be read.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Maze maze = BenchmarkMazes.load(Path.of(this.layout));
+    this.allMazeObjects = new ArrayList<>();
+    this.allMazeObjects.add(maze.getPacman());
+    this.allMazeObjects.addAll(maze.getGhosts());
+    this.allMazeObjects.add(maze.getTarget());
+    this.allMazeObjects.addAll(maze.getKeys());
+    this.allMazeObjects.addAll(maze.getBoosts());
+    this.allMazeObjects.removeIf(Objects::isNull);
+  }
+
+  /**
+   * Starts a new recording.
+   */
+  @Setup(Level.Iteration)
+  public void startRecording() {
+    this.recorder = new GameRecorder();
+  }
+
+  /**
+   * Closes the game log of the recording.
+   */
+  @TearDown(Level.Iteration)
+  public void stopRecording() {
+    this.recorder.stopRecording();
+  }
+
+  /**
+   * Captures the state into the memory of the recorder.
+   */
+  @Benchmark
+  public void captureState() {
+    this.recorder.captureState(this.allMazeObjects);
+  }
+
+  /**
+   * Captures the state into the game log.
+   */
+  @Benchmark
+  public void captureStateToLog() {
+    this.recorder.captureState(this.allMazeObjects, true);
+  }
+}
@@ -0,0 +1,72 @@
+package src.tool.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.game.GameReplay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a recorded game and presenting its states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GameReplayBenchmark {
+
+  @Param({"src/tool/tests/replays/expectedLog", "src/tool/tests/replays/expectedLogComplete"})
+  public String log;
+
+  private GameReplay replay;
+  private int totalStates;
+  private int next;
+
+  /**
+   * Loads the recorded game presented by the benchmark.
+   *
+   * @throws IOException if the recorded game cannot be loaded.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.replay = new GameReplay();
+    if (!this.replay.loadGameFromFile(Path.of(this.log))) {
+      throw new IOException("Invalid game log " + this.log);
+    }
+    this.totalStates = this.replay.getTotalStates();
+    this.next = 0;
+  }
+
+  /**
+   * Loads the recorded game from the file.
+   *
+   * @return true if the game was loaded.
+   */
+  @Benchmark
+  public boolean loadGameFromFile() {
+    return new GameReplay().loadGameFromFile(Path.of(this.log));
+  }
+
+  /**
+   * Presents the next state of the recorded game, starting over after the last state.
+   */
+  @Benchmark
+  public void presentState() {
+    this.replay.presentState(this.next);
+    this.next = this.next + 1 == this.totalStates ? 0 : this.next + 1;
+  }
+}
@@ -0,0 +1,85 @@
+package src.tool.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import src.game.Game;
+import src.game.PacmanObject;
+import src.tool.common.CommonMaze;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one tick of a headless game, Pacman heading for the target by mouse click and the ghosts moving.
+ * The game runs without a window and with zero tick length, so it never sleeps. When Pacman is caught or wins,
+ * the maze is restored before the next tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GameTickBenchmark {
+
+  @Param({"data/maze0", "data/maze4", "src/tool/tests/maps/valid/valid40x40"})
+  public String layout;
+
+  private Game game;
+  private CommonMaze maze;
+
+  /**
+   * Creates the headless game.
+   *
+   * @throws IOException if the maze cannot be loaded.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.game = new Game(0, false);
+    this.game.setCatchPause(0);
+    this.game.startRecording();
+    this.maze = this.game.createMazeFromFile(Path.of(this.layout));
+    if (this.maze == null) {
+      throw new IOException("Invalid maze " + this.layout);
+    }
+    this.game.setAllMazeObjects();
+    this.restart();
+  }
+
+  /**
+   * Closes the game log.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.game.finishRecording();
+  }
+
+  private void restart() {
+    this.maze.restoreGame();
+    this.maze.getPacman().setGoToField(this.maze.getTarget().getField());
+  }
+
+  /**
+   * Moves all objects of the maze once.
+   */
+  @Benchmark
+  public void moveAllMazeObjects() {
+    PacmanObject pacman = this.maze.getPacman();
+    if (pacman.isCaughtByGhost() || pacman.isVictorious()) {
+      this.restart();
+    }
+    this.game.moveAllMazeObjects();
+  }
+}
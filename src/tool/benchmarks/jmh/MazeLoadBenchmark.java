@@ -0,0 +1,78 @@
+package src.tool.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.game.MazeConfigure;
+import src.tool.common.CommonMaze;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a maze layout and creating the maze from it.
+ * The stream loader reads the layout from memory, so the disk is not part of its measurement. The mapped loader
+ * maps the file, which stays in the page cache after the first iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MazeLoadBenchmark {
+
+  @Param({
+    "data/maze0", "data/maze1", "data/maze2", "data/maze3", "data/maze4", "data/maze5",
+    "src/tool/tests/maps/maze/hard",
+    "src/tool/tests/maps/valid/twoLines", "src/tool/tests/maps/valid/twoLinesWithObjects",
+    "src/tool/tests/maps/valid/valid", "src/tool/tests/maps/valid/valid-ng",
+    "src/tool/tests/maps/valid/valid0", "src/tool/tests/maps/valid/valid0-ng",
+    "src/tool/tests/maps/valid/valid1", "src/tool/tests/maps/valid/valid40x40"
+  })
+  public String layout;
+
+  private byte[] content;
+
+  /**
+   * Reads the layout into memory.
+   *
+   * @throws IOException if the layout cannot be read.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.content = Files.readAllBytes(Path.of(this.layout));
+  }
+
+  /**
+   * Loads the maze from the layout in memory.
+   *
+   * @return the loaded maze.
+   */
+  @Benchmark
+  public CommonMaze loadMaze() {
+    return new MazeConfigure().loadMaze(new ByteArrayInputStream(this.content));
+  }
+
+  /**
+   * Loads the maze from the mapped layout file.
+   *
+   * @return the loaded maze.
+   */
+  @Benchmark
+  public CommonMaze loadMappedMaze() {
+    return new MazeConfigure().loadMaze(Path.of(this.layout));
+  }
+}
@@ -0,0 +1,125 @@
+package src.tool.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.game.Maze;
+import src.tool.common.CommonField;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the expansion of a cell, visiting all of its walkable neighbors, the way the moves and the searches
+ * did it before the neighbor table and the way they do it with it. Every variant sums the indices of the
+ * neighbors, so the result cannot be optimized away.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NeighborExpansionBenchmark {
+  private static final int EXPANSIONS = 1024;
+  private static final CommonField.Direction[] DIRECTIONS = {
+    CommonField.Direction.LEFT, CommonField.Direction.UP, CommonField.Direction.RIGHT, CommonField.Direction.DOWN
+  };
+
+  @Param({"data/maze0", "src/tool/tests/maps/maze/hard", "src/tool/tests/maps/valid/valid40x40"})
+  public String layout;
+
+  private Maze maze;
+  private CommonField[] fields;
+  private int[] cells;
+  private int[] offsets;
+
+  /**
+   * Loads the maze and picks the cells to expand.
+   *
+   * @throws IOException if the maze cannot be read.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.maze = BenchmarkMazes.load(Path.of(this.layout));
+    Random random = new Random(42);
+    this.fields = new CommonField[EXPANSIONS];
+    this.cells = new int[EXPANSIONS];
+    for (int i = 0; i < EXPANSIONS; i++) {
+      this.fields[i] = BenchmarkMazes.randomWalkableField(this.maze, random);
+      this.cells[i] = this.maze.indexOf(this.fields[i]);
+    }
+    this.offsets = new int[DIRECTIONS.length];
+    for (int d = 0; d < DIRECTIONS.length; d++) {
+      this.offsets[d] = DIRECTIONS[d].deltaRow() * this.maze.numCols() + DIRECTIONS[d].deltaCol();
+    }
+  }
+
+  /**
+   * Expands the cells through the fields, as the objects check their moves.
+   *
+   * @return the sum of the neighbor indices.
+   */
+  @Benchmark
+  @OperationsPerInvocation(EXPANSIONS)
+  public int expandWithFields() {
+    int sum = 0;
+    for (CommonField field : this.fields) {
+      for (CommonField.Direction direction : DIRECTIONS) {
+        CommonField neighbor = field.nextField(direction);
+        if (neighbor.canMove()) {
+          sum += this.maze.indexOf(neighbor);
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Expands the cells with a bounds and wall check per direction, as the searches did.
+   *
+   * @return the sum of the neighbor indices.
+   */
+  @Benchmark
+  @OperationsPerInvocation(EXPANSIONS)
+  public int expandWithChecks() {
+    int sum = 0;
+    for (int cell : this.cells) {
+      for (int offset : this.offsets) {
+        if (this.maze.isWalkable(cell + offset)) {
+          sum += cell + offset;
+        }
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Expands the cells with the mask of walkable neighbors from the neighbor table.
+   *
+   * @return the sum of the neighbor indices.
+   */
+  @Benchmark
+  @OperationsPerInvocation(EXPANSIONS)
+  public int expandWithTable() {
+    int sum = 0;
+    for (int cell : this.cells) {
+      for (int open = this.maze.walkableNeighbors(cell); open != 0; open &= open - 1) {
+        sum += cell + this.offsets[Integer.numberOfTrailingZeros(open)];
+      }
+    }
+    return sum;
+  }
+}
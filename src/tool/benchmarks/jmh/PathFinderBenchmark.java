@@ -0,0 +1,89 @@
+package src.tool.benchmarks.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.game.DistanceOracle;
+import src.game.Maze;
+import src.game.PathFinder;
+import src.game.resources.SearchMode;
+import src.tool.common.CommonField;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single path finder query on every valid maze layout of the project in every search mode.
+ * The queries cycle through a fixed set of random pairs of walkable fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PathFinderBenchmark {
+  // a power of two, so the next query is picked with a mask
+  private static final int QUERIES = 1024;
+
+  @Param({
+    "data/maze0", "data/maze1", "data/maze2", "data/maze3", "data/maze4", "data/maze5",
+    "src/tool/tests/maps/maze/hard",
+    "src/tool/tests/maps/valid/twoLines", "src/tool/tests/maps/valid/twoLinesWithObjects",
+    "src/tool/tests/maps/valid/valid", "src/tool/tests/maps/valid/valid-ng",
+    "src/tool/tests/maps/valid/valid0", "src/tool/tests/maps/valid/valid0-ng",
+    "src/tool/tests/maps/valid/valid1", "src/tool/tests/maps/valid/valid40x40"
+  })
+  public String layout;
+
+  @Param({"A_STAR", "JUMP_POINT", "HIERARCHICAL", "JUNCTION_GRAPH", "ALT", "DISTANCE_ORACLE"})
+  public String mode;
+
+  private PathFinder pathFinder;
+  private CommonField[] from;
+  private CommonField[] to;
+  private int next;
+
+  /**
+   * Loads the maze and prepares the queries.
+   *
+   * @throws IOException if the maze cannot be read.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Maze maze = BenchmarkMazes.load(Path.of(this.layout));
+    maze.buildDistanceOracle(DistanceOracle.DEFAULT_CELL_BUDGET);
+    this.pathFinder = new PathFinder(maze);
+    this.pathFinder.setMode(SearchMode.valueOf(this.mode));
+    Random random = new Random(42);
+    this.from = new CommonField[QUERIES];
+    this.to = new CommonField[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      this.from[i] = BenchmarkMazes.randomWalkableField(maze, random);
+      this.to[i] = BenchmarkMazes.randomWalkableField(maze, random);
+    }
+    this.next = 0;
+  }
+
+  /**
+   * Finds the first move of the next query.
+   *
+   * @return the direction of the first move.
+   */
+  @Benchmark
+  public CommonField.Direction findShortestPathDirection() {
+    int query = this.next++ & (QUERIES - 1);
+    return this.pathFinder.findShortestPathDirection(this.from[query], this.to[query]);
+  }
+}
@@ -1,6 +1,7 @@
 package src.tool.tests;
 
 import src.game.Game;
+import src.game.MazeConfigure;
 import src.game.PacmanObject;
 import src.tool.common.CommonField;
 import src.tool.common.CommonMaze;
@@ -67,5 +68,23 @@ public class AStarTestBasic {
     //check if pacman is on destination field
     Assert.assertEquals(this.maze.getPacman().getField(), destinationField);
   }
-}
 
+  @Test
+  public void unreachableDestinationStops() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(3, 5);
+    cfg.processLine("S.X..");
+    cfg.processLine("..X..");
+    cfg.processLine("..X..");
+    cfg.stopReading();
+    CommonMaze closedMaze = cfg.createMaze();
+    Assert.assertNotNull(closedMaze);
+    PacmanObject pacman = closedMaze.getPacman();
+    CommonField startField = pacman.getField();
+    pacman.setGoToField(closedMaze.getField(2, 5));
+    pacman.move();
+    pacman.move();
+    //pacman cannot get behind the wall, so he stays where he is
+    Assert.assertEquals(startField, pacman.getField());
+  }
+}
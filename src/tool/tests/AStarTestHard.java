@@ -2,6 +2,7 @@ package src.tool.tests;
 
 import src.game.Game;
 import src.game.PacmanObject;
+import src.game.resources.PlannerType;
 import src.tool.common.CommonField;
 import src.tool.common.CommonMaze;
 import org.junit.Assert;
@@ -73,4 +74,27 @@ public class AStarTestHard {
     //check if pacman is on destination field
     Assert.assertEquals(this.maze.getPacman().getField(), destinationField);
   }
+
+  @Test
+  public void plannersTakeSameNumberOfMoves() {
+    Assert.assertNotNull(this.maze);
+    CommonField destinationField = this.maze.getTarget().getField();
+    PacmanObject pacman = this.maze.getPacman();
+    PlannerType[] planners = PlannerType.values();
+    int[] moves = new int[planners.length];
+    for (int p = 0; p < planners.length; p++) {
+      this.maze.restore();
+      pacman.setPlanner(planners[p]);
+      pacman.setGoToField(destinationField);
+      while (pacman.getField() != destinationField && moves[p] < 200) {
+        pacman.move();
+        moves[p]++;
+      }
+    }
+    //all planners follow a shortest path
+    for (int p = 1; p < planners.length; p++) {
+      Assert.assertEquals(moves[0], moves[p]);
+    }
+    Assert.assertTrue(moves[0] < 200);
+  }
 }
@@ -0,0 +1,114 @@
+package src.tool.tests;
+
+import src.game.BinaryMazeFormat;
+import src.game.MazeConfigure;
+import src.game.MazeConverter;
+import src.tool.common.CommonMaze;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class BinaryMazeTest {
+
+  private static final String[] LAYOUTS = {
+    "data/maze0", "data/maze5", "src/tool/tests/maps/maze/hard", "src/tool/tests/maps/valid/twoLinesWithObjects",
+    "src/tool/tests/maps/valid/valid", "src/tool/tests/maps/valid/valid40x40"
+  };
+
+  private Path binary;
+
+  @Before
+  public void setUp() throws IOException {
+    this.binary = Files.createTempFile("maze", ".pmz");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.binary);
+  }
+
+  private static byte[] encode(String text) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Assert.assertTrue(BinaryMazeFormat.encode(new BufferedReader(new StringReader(text)), out));
+    return out.toByteArray();
+  }
+
+  @Test
+  public void sameMazeAsText() throws IOException {
+    for (String layout : LAYOUTS) {
+      Assert.assertTrue(layout, MazeConverter.toBinary(Path.of(layout), this.binary));
+      Assert.assertTrue(MazeConverter.isBinary(this.binary));
+      // the header outweighs the cells of the smallest mazes
+      if (Files.size(Path.of(layout)) > 100) {
+        Assert.assertTrue(layout, Files.size(this.binary) < Files.size(Path.of(layout)));
+      }
+      CommonMaze text = new MazeConfigure().loadMaze(Path.of(layout));
+      CommonMaze binaryMaze = new MazeConfigure().loadMaze(this.binary);
+      Assert.assertNotNull(layout, binaryMaze);
+      Assert.assertEquals(layout, MazeDescription.describe(text), MazeDescription.describe(binaryMaze));
+    }
+  }
+
+  @Test
+  public void decodesToTheSameText() throws IOException {
+    String text = "3 9\nXXXXXXXXX\nS.......G\nKKKKB...T\n";
+    StringWriter decoded = new StringWriter();
+    BinaryMazeFormat.decode(new ByteArrayInputStream(encode(text)), decoded);
+    Assert.assertEquals(text, decoded.toString().replace(System.lineSeparator(), "\n"));
+  }
+
+  @Test
+  public void longRunsAreShort() throws IOException {
+    String wall = "X".repeat(1000);
+    String text = "3 1000\n" + wall + "\nS" + ".".repeat(998) + "T\n" + wall + "\n";
+    // a 32-byte header, two single cells and three runs
+    Assert.assertTrue(encode(text).length < 50);
+  }
+
+  @Test
+  public void invalidMazes() throws IOException {
+    Assert.assertFalse(BinaryMazeFormat.encode(new BufferedReader(new StringReader("2 3\n.SS\n.T.\n")),
+      new ByteArrayOutputStream()));
+    Assert.assertFalse(BinaryMazeFormat.encode(new BufferedReader(new StringReader("2 3\n.S.\n.T\n")),
+      new ByteArrayOutputStream()));
+    Assert.assertFalse(BinaryMazeFormat.encode(new BufferedReader(new StringReader("2 3\n.S.\n.T.\n...\n")),
+      new ByteArrayOutputStream()));
+    // a replay log after the maze is not part of it
+    Assert.assertTrue(BinaryMazeFormat.encode(
+      new BufferedReader(new StringReader("2 3\n.S.\n.T.\nORD: 1 OBJ: PACMAN 0 ON: (1,2)\n")),
+      new ByteArrayOutputStream()));
+    byte[] valid = encode("2 3\n.S.\n.TG\n");
+    Assert.assertNotNull(new MazeConfigure().loadBinaryMaze(new ByteArrayInputStream(valid)));
+    // missing cells
+    byte[] truncated = Arrays.copyOf(valid, valid.length - 1);
+    Assert.assertNull(new MazeConfigure().loadBinaryMaze(new ByteArrayInputStream(truncated)));
+    // wrong version
+    byte[] version = valid.clone();
+    version[3] = 2;
+    Assert.assertNull(new MazeConfigure().loadBinaryMaze(new ByteArrayInputStream(version)));
+    // the header counts two ghosts
+    byte[] counts = valid.clone();
+    counts[3 + 1 + 4 + 4 + 4 + 3] = 2;
+    Assert.assertNull(new MazeConfigure().loadBinaryMaze(new ByteArrayInputStream(counts)));
+    // dimensions too large for the cells of a maze
+    byte[] huge = valid.clone();
+    huge[4] = 0x7F;
+    huge[8] = 0x7F;
+    Assert.assertNull(new MazeConfigure().loadBinaryMaze(new ByteArrayInputStream(huge)));
+    byte[] large = valid.clone();
+    large[6] = 0x40;
+    large[10] = 0x40;
+    Assert.assertNull(new MazeConfigure().loadBinaryMaze(new ByteArrayInputStream(large)));
+  }
+}
@@ -0,0 +1,114 @@
+package src.tool.tests;
+
+import src.game.Maze;
+import src.game.MazeConfigure;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+public class BitboardTest {
+
+  private static final int ROWS = 21;
+  private static final int COLS = 150;
+
+  private String[] lines;
+
+  // scattered walls over three words per row and a closed room the searches cannot enter
+  @Before
+  public void setUp() {
+    Random random = new Random(14);
+    this.lines = new String[ROWS];
+    for (int row = 0; row < ROWS; row++) {
+      StringBuilder line = new StringBuilder();
+      for (int col = 0; col < COLS; col++) {
+        boolean room = row >= 2 && row <= 6 && col >= 100 && col <= 110;
+        boolean roomWall = room && (row == 2 || row == 6 || col == 100 || col == 110);
+        if (row == 0 && col == 0) {
+          line.append('S');
+        } else if (row == ROWS - 1 && col == COLS - 1) {
+          line.append('T');
+        } else if (roomWall || (!room && random.nextInt(4) == 0)) {
+          line.append('X');
+        } else {
+          line.append('.');
+        }
+      }
+      this.lines[row] = line.toString();
+    }
+  }
+
+  private Maze createMaze(boolean bitboard) {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(ROWS, COLS);
+    for (String line : this.lines) {
+      cfg.processLine(line);
+    }
+    cfg.stopReading();
+    Maze maze = (Maze) cfg.createMaze();
+    if (bitboard) {
+      maze.buildBitboard();
+    }
+    return maze;
+  }
+
+  private static int[] plainDistances(Maze maze, int source) {
+    int[] distances = new int[maze.numCells()];
+    Arrays.fill(distances, -1);
+    distances[source] = 0;
+    Queue<Integer> queue = new ArrayDeque<>();
+    queue.add(source);
+    int[] steps = {-maze.numCols(), 1, maze.numCols(), -1};
+    while (!queue.isEmpty()) {
+      int current = queue.poll();
+      for (int step : steps) {
+        int neighbor = current + step;
+        if (maze.isWalkable(neighbor) && distances[neighbor] == -1) {
+          distances[neighbor] = distances[current] + 1;
+          queue.add(neighbor);
+        }
+      }
+    }
+    return distances;
+  }
+
+  @Test
+  public void distancesMatchPlainSearch() {
+    Maze maze = this.createMaze(true);
+    Maze plain = this.createMaze(false);
+    Assert.assertNotNull(maze);
+    Assert.assertNotNull(plain);
+    // the sources sit on both sides of the word boundaries of a row
+    int[] cols = {1, 62, 63, 64, 65, 66, 126, 127, 128, 129, 150};
+    int checked = 0;
+    for (int row = 1; row <= ROWS; row++) {
+      for (int col : cols) {
+        int source = maze.indexOf(row, col);
+        if (!maze.isWalkable(source)) {
+          continue;
+        }
+        int[] expected = plainDistances(maze, source);
+        Assert.assertArrayEquals("from " + row + "," + col, expected, maze.distancesFrom(source));
+        Assert.assertArrayEquals("from " + row + "," + col, expected, plain.distancesFrom(source));
+        checked++;
+      }
+    }
+    Assert.assertTrue(checked > ROWS * cols.length / 2);
+  }
+
+  @Test
+  public void closedRoomIsUnreachable() {
+    Maze maze = this.createMaze(true);
+    Assert.assertNotNull(maze);
+    int[] distances = maze.distancesFrom(maze.indexOf(maze.getPacman().getField()));
+    int inside = maze.indexOf(5, 105);
+    Assert.assertTrue(maze.isWalkable(inside));
+    Assert.assertEquals(-1, distances[inside]);
+    Assert.assertEquals(-1, maze.distancesFrom(inside)[maze.indexOf(1, 1)]);
+    Assert.assertTrue(maze.distancesFrom(inside)[maze.indexOf(4, 104)] > 0);
+  }
+}
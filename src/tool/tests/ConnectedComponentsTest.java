@@ -0,0 +1,55 @@
+package src.tool.tests;
+
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PathFinder;
+import src.game.resources.ObjectType;
+import src.tool.common.CommonField;
+import src.tool.common.CommonMazeObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ConnectedComponentsTest {
+
+  private Maze maze;
+
+  // the wall splits the maze into two regions, one key and the target are on the other side
+  @Before
+  public void setUp() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(3, 5);
+    cfg.processLine("S.XK.");
+    cfg.processLine("K.X..");
+    cfg.processLine("..X.T");
+    cfg.stopReading();
+    this.maze = (Maze) cfg.createMaze();
+  }
+
+  @Test
+  public void unreachableRejectedWithoutSearch() {
+    Assert.assertNotNull(this.maze);
+    int start = this.maze.indexOf(this.maze.getPacman().getField());
+    Assert.assertTrue(this.maze.isReachable(start, this.maze.indexOf(this.maze.getField(3, 2))));
+    Assert.assertFalse(this.maze.isReachable(start, this.maze.indexOf(this.maze.getField(1, 5))));
+    Assert.assertFalse(this.maze.isReachable(start, this.maze.indexOf(this.maze.getField(1, 3))));
+    PathFinder pathFinder = this.maze.getPathFinder();
+    Assert.assertEquals(CommonField.Direction.STOP,
+      pathFinder.findShortestPathDirection(this.maze.getPacman().getField(), this.maze.getField(1, 5)));
+    Assert.assertEquals(0, pathFinder.getExpandedNodes());
+  }
+
+  @Test
+  public void unreachableObjectsFlagged() {
+    Assert.assertNotNull(this.maze);
+    List<CommonMazeObject> unreachable = this.maze.getUnreachableObjects();
+    Assert.assertEquals(2, unreachable.size());
+    Assert.assertTrue(unreachable.contains(this.maze.getTarget()));
+    for (CommonMazeObject object : unreachable) {
+      Assert.assertNotEquals(this.maze.getField(2, 1), object.getField());
+      Assert.assertTrue(object.getType() == ObjectType.KEY || object.getType() == ObjectType.TARGET);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package src.tool.tests;
+
+import src.game.GhostObject;
+import src.game.MazeConfigure;
+import src.game.PacmanObject;
+import src.game.resources.PlannerType;
+import src.tool.common.CommonField;
+import src.tool.common.CommonMaze;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DStarLiteTest {
+
+  private CommonMaze maze;
+
+  // the ghost blocks the short way down, the long way goes around the walls
+  @Before
+  public void setUp() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(4, 11);
+    cfg.processLine("S..........");
+    cfg.processLine("G.XXXXXXXX.");
+    cfg.processLine(".XXXXXXXXX.");
+    cfg.processLine("...........");
+    cfg.stopReading();
+    maze = cfg.createMaze();
+  }
+
+  @Test
+  public void replansWhenGhostLeaves() {
+    Assert.assertNotNull("Maze neni null", maze);
+    CommonField destinationField = maze.getField(4, 1);
+    PacmanObject pacman = maze.getPacman();
+    GhostObject ghost = (GhostObject) maze.getGhosts().get(0);
+    pacman.setPlanner(PlannerType.D_STAR_LITE);
+    pacman.setGoToField(destinationField);
+    // the ghost blocks the short way
+    pacman.move();
+    Assert.assertEquals(CommonField.Direction.RIGHT, pacman.getDirection());
+    // the ghost steps into the pocket and frees the short way
+    ghost.move(CommonField.Direction.RIGHT);
+    pacman.move();
+    Assert.assertEquals(CommonField.Direction.LEFT, pacman.getDirection());
+    for (int i = 0; i < 3; i++) {
+      pacman.move();
+    }
+    Assert.assertEquals(destinationField, pacman.getField());
+    Assert.assertFalse(pacman.isCaughtByGhost());
+  }
+
+  @Test
+  public void ghostAsHighCostIsCheaperThanDetour() {
+    Assert.assertNotNull("Maze neni null", maze);
+    PacmanObject pacman = maze.getPacman();
+    pacman.setPlanner(PlannerType.D_STAR_LITE);
+    pacman.setGhostsAsHighCost(true);
+    pacman.setGoToField(maze.getField(4, 1));
+    pacman.move();
+    Assert.assertEquals(CommonField.Direction.DOWN, pacman.getDirection());
+  }
+}
@@ -0,0 +1,91 @@
+package src.tool.tests;
+
+import src.game.DistanceOracle;
+import src.game.GhostObject;
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PathQueryBatch;
+import src.game.resources.GhostMode;
+import src.game.resources.SearchMode;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class DistanceOracleTest {
+
+  private Maze maze;
+
+  private Maze loadMaze(String pathToMaze, int cellBudget) {
+    try (InputStream inputStream = Files.newInputStream(Path.of(pathToMaze))) {
+      MazeConfigure mazeConfigure = new MazeConfigure();
+      mazeConfigure.setDistanceOracleBudget(cellBudget);
+      return (Maze) mazeConfigure.loadMaze(inputStream);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
+  @Before
+  public void setUp() {
+    this.maze = loadMaze("data/maze4", DistanceOracle.DEFAULT_CELL_BUDGET);
+  }
+
+  @Test
+  public void builtOnLoad() {
+    Assert.assertNotNull(this.maze);
+    DistanceOracle oracle = this.maze.getDistanceOracle();
+    Assert.assertNotNull(oracle);
+    Assert.assertEquals(SearchMode.DISTANCE_ORACLE, this.maze.getPathFinder().getMode());
+    long walkable = oracle.numWalkableCells();
+    Assert.assertEquals(2 * walkable * walkable + 4L * (this.maze.numCells() + walkable), oracle.memoryFootprint());
+  }
+
+  @Test
+  public void distancesMatchSearch() {
+    Assert.assertNotNull(this.maze);
+    DistanceOracle oracle = this.maze.getDistanceOracle();
+    int cells = this.maze.numCells();
+    int[] starts = new int[cells];
+    int[] destinations = new int[cells];
+    int destination = this.maze.indexOf(this.maze.getTarget().getField());
+    for (int cell = 0; cell < cells; cell++) {
+      starts[cell] = cell;
+      destinations[cell] = destination;
+    }
+    int[] expected = new PathQueryBatch(this.maze).distances(starts, destinations);
+    for (int cell = 0; cell < cells; cell++) {
+      Assert.assertEquals(expected[cell], oracle.distance(cell, destination));
+      // every move shortens the path by one
+      int next = oracle.nextHop(cell, destination);
+      if (expected[cell] > 0) {
+        Assert.assertEquals(expected[cell] - 1, oracle.distance(next, destination));
+      }
+    }
+  }
+
+  @Test
+  public void chasingGhostUsesTable() {
+    Assert.assertNotNull(this.maze);
+    GhostObject ghost = (GhostObject) this.maze.getGhosts().get(0);
+    ghost.setMode(GhostMode.CHASE);
+    DistanceOracle oracle = this.maze.getDistanceOracle();
+    int pacmanCell = this.maze.indexOf(this.maze.getPacman().getField());
+    int before = oracle.distance(this.maze.indexOf(ghost.getField()), pacmanCell);
+    ghost.move();
+    Assert.assertEquals(before - 1, oracle.distance(this.maze.indexOf(ghost.getField()), pacmanCell));
+  }
+
+  @Test
+  public void refusedOverBudget() {
+    Maze overBudget = loadMaze("data/maze4", 100);
+    Assert.assertNotNull(overBudget);
+    Assert.assertNull(overBudget.getDistanceOracle());
+    Assert.assertEquals(SearchMode.A_STAR, overBudget.getPathFinder().getMode());
+  }
+}
@@ -0,0 +1,170 @@
+package src.tool.tests;
+
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PathField;
+import src.game.WallField;
+import src.game.resources.Coordinate;
+import src.game.resources.ObjectType;
+import src.tool.common.CommonField;
+import src.tool.common.CommonMazeObject;
+import src.tool.common.Observable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class FieldViewTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(3, 4);
+    cfg.processLine("SG..");
+    cfg.processLine(".XX.");
+    cfg.processLine("GK.T");
+    cfg.stopReading();
+    this.maze = (Maze) cfg.createMaze();
+  }
+
+  @Test
+  public void viewsAreStable() {
+    Assert.assertNotNull(this.maze);
+    CommonField field = this.maze.getField(1, 3);
+    Assert.assertTrue(field instanceof PathField);
+    Assert.assertSame(field, this.maze.getField(1, 3));
+    Assert.assertSame(field, this.maze.fieldAt(this.maze.indexOf(field)));
+    Assert.assertSame(field, field.nextField(CommonField.Direction.LEFT).nextField(CommonField.Direction.RIGHT));
+    Assert.assertTrue(this.maze.getField(0, 0) instanceof WallField);
+    Assert.assertTrue(this.maze.getField(2, 2) instanceof WallField);
+    Assert.assertNull(this.maze.getField(this.maze.numRows(), 0));
+    Assert.assertEquals(3, field.getCoordinate().getY());
+  }
+
+  @Test
+  public void objectsStayOnTheirCells() {
+    Assert.assertNotNull(this.maze);
+    PathField ghostField = (PathField) this.maze.getField(1, 2);
+    CommonMazeObject ghost = ghostField.getGhosts().get(0);
+    CommonMazeObject other = ((PathField) this.maze.getField(3, 1)).getGhosts().get(0);
+    Assert.assertSame(ghostField, ghost.getField());
+    // a second ghost queues behind the first one
+    ((PathField) other.getField()).remove(other);
+    ghostField.put(other);
+    Assert.assertEquals(List.of(ghost, other), ghostField.getGhosts());
+    Assert.assertSame(ghost, ghostField.get());
+    ghostField.remove(ghost);
+    Assert.assertEquals(List.of(other), ghostField.getGhosts());
+    Assert.assertTrue(this.maze.getField(3, 1).isEmpty());
+    // other objects are unaffected by the moving ghosts
+    PathField keyField = (PathField) this.maze.getField(3, 2);
+    Assert.assertNotNull(keyField.getKey());
+    Assert.assertTrue(keyField.contains(keyField.getKey()));
+    Assert.assertFalse(keyField.contains(ghost));
+  }
+
+  @Test
+  public void restoreNotifiesObservedFields() {
+    Assert.assertNotNull(this.maze);
+    List<Observable> updated = new ArrayList<>();
+    CommonField empty = this.maze.getField(1, 4);
+    empty.addObserver(updated::add);
+    PathField ghostField = (PathField) this.maze.getField(1, 2);
+    CommonMazeObject ghost = ghostField.getGhosts().get(0);
+    ghostField.remove(ghost);
+    ((PathField) empty).put(ghost);
+    Assert.assertEquals(List.of(empty), updated);
+    this.maze.restore();
+    Assert.assertTrue(empty.isEmpty());
+    Assert.assertSame(ghostField, ghost.getField());
+    Assert.assertEquals(List.of(ghost), ghostField.getGhosts());
+    Assert.assertEquals(List.of(empty, empty), updated);
+  }
+
+  @Test
+  public void restoreNotifiesOnlyChangedFields() {
+    Assert.assertNotNull(this.maze);
+    List<Observable> updated = new ArrayList<>();
+    for (int row = 1; row <= 3; row++) {
+      for (int col = 1; col <= 4; col++) {
+        this.maze.getField(row, col).addObserver(updated::add);
+      }
+    }
+    this.maze.restore();
+    Assert.assertEquals(List.of(), updated);
+    PathField ghostField = (PathField) this.maze.getField(1, 2);
+    CommonMazeObject ghost = ghostField.getGhosts().get(0);
+    PathField target = (PathField) this.maze.getField(1, 3);
+    ghostField.remove(ghost);
+    target.put(ghost);
+    updated.clear();
+    this.maze.restore();
+    Assert.assertEquals(2, updated.size());
+    Assert.assertTrue(updated.contains(ghostField));
+    Assert.assertTrue(updated.contains(target));
+    Assert.assertSame(ghostField, ghost.getField());
+    Assert.assertTrue(target.isEmpty());
+  }
+
+  @Test
+  public void occupancyFollowsPutAndRemove() {
+    Assert.assertNotNull(this.maze);
+    PathField ghostField = (PathField) this.maze.getField(1, 2);
+    PathField otherField = (PathField) this.maze.getField(3, 1);
+    CommonMazeObject ghost = ghostField.getGhosts().get(0);
+    CommonMazeObject other = otherField.getGhosts().get(0);
+    Assert.assertTrue(ghostField.has(ObjectType.GHOST));
+    Assert.assertFalse(ghostField.has(ObjectType.KEY));
+    Assert.assertEquals(1 << ObjectType.GHOST.ordinal(), ghostField.occupancy());
+    Assert.assertEquals(1, ghostField.ghostCount());
+    otherField.remove(other);
+    Assert.assertTrue(otherField.isEmpty());
+    Assert.assertEquals(0, otherField.ghostCount());
+    ghostField.put(other);
+    Assert.assertEquals(2, ghostField.ghostCount());
+    // the count moves along when the first ghost leaves the field
+    ghostField.remove(ghost);
+    Assert.assertEquals(1, ghostField.ghostCount());
+    Assert.assertTrue(ghostField.has(ObjectType.GHOST));
+    Assert.assertFalse(ghostField.contains(ghost));
+    ghostField.remove(other);
+    Assert.assertFalse(ghostField.has(ObjectType.GHOST));
+    Assert.assertTrue(ghostField.isEmpty());
+    Assert.assertEquals(0, ghostField.occupancy());
+    Assert.assertNull(ghostField.get());
+    // a key and a ghost on one field
+    PathField keyField = (PathField) this.maze.getField(3, 2);
+    keyField.put(ghost);
+    Assert.assertEquals(1 << ObjectType.GHOST.ordinal() | 1 << ObjectType.KEY.ordinal(), keyField.occupancy());
+    Assert.assertSame(ghost, keyField.get());
+    keyField.remove(ghost);
+    Assert.assertEquals(1 << ObjectType.KEY.ordinal(), keyField.occupancy());
+    Assert.assertTrue(keyField.has(ObjectType.KEY));
+    Assert.assertFalse(keyField.has(ObjectType.GHOST));
+    this.maze.restore();
+    Assert.assertEquals(1, ghostField.ghostCount());
+    Assert.assertEquals(1, otherField.ghostCount());
+  }
+
+  @Test
+  public void coordinatesAreShared() {
+    Assert.assertNotNull(this.maze);
+    int cell = this.maze.indexOf(2, 4);
+    Coordinate coordinate = this.maze.coordinateAt(cell);
+    Assert.assertSame(coordinate, this.maze.getField(2, 4).getCoordinate());
+    Assert.assertSame(coordinate, this.maze.coordinateAt(cell));
+    Assert.assertEquals(new Coordinate(2, 4), coordinate);
+    Assert.assertEquals(Objects.hash(2, 4), coordinate.hashCode());
+    long packed = coordinate.pack();
+    Assert.assertEquals(Coordinate.pack(2, 4), packed);
+    Assert.assertEquals(2, Coordinate.unpackX(packed));
+    Assert.assertEquals(4, Coordinate.unpackY(packed));
+    Assert.assertEquals(-3, Coordinate.unpackY(Coordinate.pack(-1, -3)));
+    Assert.assertEquals(-1, Coordinate.unpackX(Coordinate.pack(-1, -3)));
+  }
+}
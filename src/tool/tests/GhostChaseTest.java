@@ -0,0 +1,50 @@
+package src.tool.tests;
+
+import src.game.GhostObject;
+import src.game.MazeConfigure;
+import src.game.PacmanObject;
+import src.game.resources.GhostMode;
+import src.tool.common.CommonMaze;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GhostChaseTest {
+
+  private CommonMaze maze;
+
+  @Before
+  public void setUp() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(5, 5);
+    cfg.processLine("S....");
+    cfg.processLine(".XXX.");
+    cfg.processLine(".X...");
+    cfg.processLine(".X.X.");
+    cfg.processLine("G...G");
+    cfg.stopReading();
+    maze = cfg.createMaze();
+  }
+
+  @Test
+  public void chasingGhostsCatchPacman() {
+    Assert.assertNotNull("Maze neni null", maze);
+    PacmanObject pacman = maze.getPacman();
+    GhostObject nearGhost = (GhostObject) maze.getGhosts().get(0);
+    GhostObject farGhost = (GhostObject) maze.getGhosts().get(1);
+    nearGhost.setMode(GhostMode.CHASE);
+    farGhost.setMode(GhostMode.CHASE);
+    // the near ghost is 4 moves away
+    for (int i = 0; i < 3; i++) {
+      nearGhost.move();
+      Assert.assertFalse(pacman.isCaughtByGhost());
+    }
+    nearGhost.move();
+    Assert.assertTrue(pacman.isCaughtByGhost());
+    // the far ghost is 8 moves away
+    for (int i = 0; i < 8; i++) {
+      farGhost.move();
+    }
+    Assert.assertEquals(pacman.getField(), farGhost.getField());
+  }
+}
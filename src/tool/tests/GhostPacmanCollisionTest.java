@@ -66,4 +66,22 @@ public class GhostPacmanCollisionTest {
     Assert.assertEquals(ghost.getField(), maze.getField(4, 3));
     Assert.assertEquals(pacman.getField(), maze.getField(1, 3));
   }
+
+  @Test
+  public void GhostLeavingReleasesPacman() {
+    Assert.assertNotNull("Maze neni null", maze);
+    GhostObject ghost = (GhostObject) maze.getGhosts().get(0);
+    PacmanObject pacman = maze.getPacman();
+    ghost.move(CommonField.Direction.UP);
+    ghost.move(CommonField.Direction.UP);
+    ghost.move(CommonField.Direction.UP);
+    Assert.assertTrue(pacman.isCaughtByGhost());
+    // ghost walks on
+    ghost.move(CommonField.Direction.LEFT);
+    Assert.assertFalse(pacman.isCaughtByGhost());
+    pacman.move(CommonField.Direction.LEFT);
+    Assert.assertTrue(pacman.isCaughtByGhost());
+    pacman.ghostCollision();
+    Assert.assertFalse(pacman.isCaughtByGhost());
+  }
 }
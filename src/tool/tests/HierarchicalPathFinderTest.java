@@ -0,0 +1,71 @@
+package src.tool.tests;
+
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PacmanObject;
+import src.game.resources.PlannerType;
+import src.game.resources.SearchMode;
+import src.tool.common.CommonField;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class HierarchicalPathFinderTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    try (InputStream inputStream = Files.newInputStream(Path.of("src/tool/tests/maps/maze/hard"))) {
+      MazeConfigure mazeConfigure = new MazeConfigure();
+      mazeConfigure.setHierarchicalPathFinding(true);
+      this.maze = (Maze) mazeConfigure.loadMaze(inputStream);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  @Test
+  public void modeSetOnLoad() {
+    Assert.assertNotNull(this.maze);
+    Assert.assertEquals(SearchMode.HIERARCHICAL, this.maze.getPathFinder().getMode());
+  }
+
+  @Test
+  public void getToTargetWithSmallClusters() {
+    Assert.assertNotNull(this.maze);
+    this.maze.buildHierarchy(8);
+    CommonField destinationField = this.maze.getTarget().getField();
+    PacmanObject pacman = this.maze.getPacman();
+    pacman.setPlanner(PlannerType.A_STAR);
+    pacman.setGoToField(destinationField);
+    for (int i = 0; i < 200; i++) {
+      pacman.move();
+      // every move is searched on the abstract graph
+      Assert.assertEquals(SearchMode.HIERARCHICAL, this.maze.getPathFinder().getLastQueryMode());
+    }
+    Assert.assertEquals(0, pacman.getRemainingRouteLength());
+    //check if pacman is on destination field
+    Assert.assertEquals(destinationField, pacman.getField());
+  }
+
+  @Test
+  public void unreachableDestinationStops() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.setHierarchicalPathFinding(true);
+    cfg.startReading(3, 5);
+    cfg.processLine("S.X..");
+    cfg.processLine("..X..");
+    cfg.processLine("..X..");
+    cfg.stopReading();
+    Maze closedMaze = (Maze) cfg.createMaze();
+    CommonField start = closedMaze.getPacman().getField();
+    Assert.assertEquals(CommonField.Direction.STOP,
+      closedMaze.getPathFinder().findShortestPathDirection(start, closedMaze.getField(2, 5)));
+  }
+}
@@ -0,0 +1,62 @@
+package src.tool.tests;
+
+import src.game.Game;
+import src.game.Maze;
+import src.game.PathFinder;
+import src.game.resources.SearchMode;
+import src.tool.common.CommonField;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+
+public class JumpPointSearchTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    Game game = new Game(300, true);
+    this.maze = (Maze) game.createMazeFromFile(Path.of("src/tool/tests/maps/maze/hard"));
+  }
+
+  // walks from the start field to the destination field and returns the number of moves
+  private int walk(PathFinder pathFinder, CommonField start, CommonField destination) {
+    CommonField current = start;
+    int moves = 0;
+    while (current != destination && moves < this.maze.numCells()) {
+      CommonField.Direction direction = pathFinder.findShortestPathDirection(current, destination);
+      Assert.assertNotEquals(CommonField.Direction.STOP, direction);
+      current = current.nextField(direction);
+      Assert.assertTrue(current.canMove());
+      moves++;
+    }
+    return moves;
+  }
+
+  @Test
+  public void sameLengthAsAStar() {
+    Assert.assertNotNull(this.maze);
+    CommonField start = this.maze.getPacman().getField();
+    CommonField destination = this.maze.getTarget().getField();
+    PathFinder aStar = new PathFinder(this.maze);
+    PathFinder jumpPoint = new PathFinder(this.maze);
+    jumpPoint.setMode(SearchMode.JUMP_POINT);
+    Assert.assertEquals(walk(aStar, start, destination), walk(jumpPoint, start, destination));
+    Assert.assertEquals(walk(aStar, destination, start), walk(jumpPoint, destination, start));
+  }
+
+  @Test
+  public void expandsFewerNodes() {
+    Assert.assertNotNull(this.maze);
+    CommonField start = this.maze.getPacman().getField();
+    CommonField destination = this.maze.getTarget().getField();
+    PathFinder aStar = new PathFinder(this.maze);
+    PathFinder jumpPoint = new PathFinder(this.maze);
+    jumpPoint.setMode(SearchMode.JUMP_POINT);
+    Assert.assertNotEquals(CommonField.Direction.STOP, aStar.findShortestPathDirection(start, destination));
+    Assert.assertNotEquals(CommonField.Direction.STOP, jumpPoint.findShortestPathDirection(start, destination));
+    Assert.assertTrue(jumpPoint.getExpandedNodes() < aStar.getExpandedNodes());
+  }
+}
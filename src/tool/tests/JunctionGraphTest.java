@@ -0,0 +1,83 @@
+package src.tool.tests;
+
+import src.game.GhostObject;
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PacmanObject;
+import src.game.resources.PlannerType;
+import src.game.resources.SearchMode;
+import src.tool.common.CommonField;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class JunctionGraphTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    try (InputStream inputStream = Files.newInputStream(Path.of("src/tool/tests/maps/maze/hard"))) {
+      MazeConfigure mazeConfigure = new MazeConfigure();
+      mazeConfigure.setJunctionGraph(true);
+      this.maze = (Maze) mazeConfigure.loadMaze(inputStream);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  @Test
+  public void modeSetOnLoad() {
+    Assert.assertNotNull(this.maze);
+    Assert.assertEquals(SearchMode.JUNCTION_GRAPH, this.maze.getPathFinder().getMode());
+  }
+
+  @Test
+  public void sameLengthAsAStar() {
+    Assert.assertNotNull(this.maze);
+    CommonField destinationField = this.maze.getTarget().getField();
+    PacmanObject pacman = this.maze.getPacman();
+    pacman.setPlanner(PlannerType.A_STAR);
+    SearchMode[] modes = {SearchMode.A_STAR, SearchMode.JUNCTION_GRAPH};
+    int[] moves = new int[modes.length];
+    for (int m = 0; m < modes.length; m++) {
+      this.maze.restore();
+      this.maze.getPathFinder().setMode(modes[m]);
+      pacman.setGoToField(destinationField);
+      while (pacman.getField() != destinationField && moves[m] < 200) {
+        pacman.move();
+        moves[m]++;
+        Assert.assertEquals(modes[m], this.maze.getPathFinder().getLastQueryMode());
+      }
+    }
+    Assert.assertEquals(moves[0], moves[1]);
+    Assert.assertTrue(moves[0] < 200);
+  }
+
+  @Test
+  public void ghostFollowsCorridorAroundLoop() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.setJunctionGraph(true);
+    cfg.startReading(3, 4);
+    cfg.processLine("G..S");
+    cfg.processLine(".XX.");
+    cfg.processLine("....");
+    cfg.stopReading();
+    Maze loopMaze = (Maze) cfg.createMaze();
+    GhostObject ghost = (GhostObject) loopMaze.getGhosts().get(0);
+    ghost.setDirection(CommonField.Direction.DOWN);
+    ghost.move(CommonField.Direction.DOWN);
+    // the loop has no junction, the ghost never turns back
+    for (int i = 0; i < 9; i++) {
+      CommonField.Direction previous = ghost.getDirection();
+      ghost.move();
+      Assert.assertNotEquals(previous.opposite(), ghost.getDirection());
+    }
+    Assert.assertEquals(loopMaze.getField(1, 1), ghost.getField());
+  }
+}
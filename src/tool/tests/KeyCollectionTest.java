@@ -0,0 +1,67 @@
+package src.tool.tests;
+
+import src.game.KeyCollectionPlanner;
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PacmanObject;
+import src.tool.common.CommonField;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeyCollectionTest {
+
+  private Maze createMaze(String... lines) {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(lines.length, lines[0].length());
+    for (String line : lines) {
+      cfg.processLine(line);
+    }
+    cfg.stopReading();
+    return (Maze) cfg.createMaze();
+  }
+
+  // the nearest key is on the way to the target, taking the far key first is shorter
+  @Test
+  public void autopilotTakesShortestTour() {
+    Maze maze = createMaze("K..S.K......T");
+    Assert.assertNotNull("Maze neni null", maze);
+    PacmanObject pacman = maze.getPacman();
+    Assert.assertTrue(pacman.startAutopilot());
+    pacman.move();
+    Assert.assertEquals(CommonField.Direction.LEFT, pacman.getDirection());
+    int moves = 1;
+    while (!pacman.isVictorious() && moves < 50) {
+      pacman.move();
+      moves++;
+    }
+    Assert.assertTrue(pacman.isVictorious());
+    Assert.assertEquals(15, moves);
+    // the tour is finished
+    pacman.move();
+    Assert.assertFalse(pacman.isAutopilotOn());
+  }
+
+  @Test
+  public void manyKeysAreOrderedApproximately() {
+    StringBuilder keys = new StringBuilder();
+    for (int i = 0; i <= KeyCollectionPlanner.EXACT_LIMIT; i++) {
+      keys.append("K.");
+    }
+    Maze maze = createMaze("S" + keys + "T");
+    Assert.assertNotNull("Maze neni null", maze);
+    KeyCollectionPlanner planner = new KeyCollectionPlanner(maze);
+    int[] tour = planner.planTour();
+    Assert.assertNotNull(tour);
+    Assert.assertEquals(KeyCollectionPlanner.EXACT_LIMIT + 2, tour.length);
+    // walking along the corridor is optimal
+    Assert.assertEquals(2 * KeyCollectionPlanner.EXACT_LIMIT + 3, planner.getTourLength());
+  }
+
+  @Test
+  public void unreachableKeyStopsAutopilot() {
+    Maze maze = createMaze("KXS..T");
+    Assert.assertNotNull("Maze neni null", maze);
+    Assert.assertFalse(maze.getPacman().startAutopilot());
+    Assert.assertFalse(maze.getPacman().isAutopilotOn());
+  }
+}
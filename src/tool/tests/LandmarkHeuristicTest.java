@@ -0,0 +1,40 @@
+package src.tool.tests;
+
+import src.game.Game;
+import src.game.Maze;
+import src.game.PathFinder;
+import src.game.resources.SearchMode;
+import src.tool.common.CommonField;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+
+public class LandmarkHeuristicTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    Game game = new Game(300, true);
+    this.maze = (Maze) game.createMazeFromFile(Path.of("src/tool/tests/maps/maze/hard"));
+  }
+
+  // the route lengths of all modes are compared in RouteFollowingTest, the landmarks must also cut the search
+  @Test
+  public void expandsFewerNodesBothWays() {
+    Assert.assertNotNull(this.maze);
+    CommonField pacman = this.maze.getPacman().getField();
+    CommonField target = this.maze.getTarget().getField();
+    PathFinder aStar = new PathFinder(this.maze);
+    PathFinder landmarks = new PathFinder(this.maze);
+    landmarks.setMode(SearchMode.ALT);
+    CommonField[][] queries = {{pacman, target}, {target, pacman}};
+    for (CommonField[] query : queries) {
+      Assert.assertNotEquals(CommonField.Direction.STOP, aStar.findShortestPathDirection(query[0], query[1]));
+      Assert.assertNotEquals(CommonField.Direction.STOP, landmarks.findShortestPathDirection(query[0], query[1]));
+      Assert.assertTrue(landmarks.getExpandedNodes() < aStar.getExpandedNodes());
+    }
+  }
+}
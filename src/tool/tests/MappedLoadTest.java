@@ -0,0 +1,91 @@
+package src.tool.tests;
+
+import src.game.MazeConfigure;
+import src.tool.common.CommonMaze;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedLoadTest {
+
+  private static final String[] VALID = {
+    "data/maze0", "data/maze5", "src/tool/tests/maps/maze/hard", "src/tool/tests/maps/valid/twoLinesWithObjects",
+    "src/tool/tests/maps/valid/valid", "src/tool/tests/maps/valid/valid1", "src/tool/tests/maps/valid/valid40x40"
+  };
+
+  private static CommonMaze loadStream(Path path) throws IOException {
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      return new MazeConfigure().loadMaze(inputStream);
+    }
+  }
+
+  private static CommonMaze loadMapped(String content) throws IOException {
+    Path path = Files.createTempFile("maze", null);
+    try {
+      Files.writeString(path, content);
+      return new MazeConfigure().loadMaze(path);
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void sameMazeAsStream() throws IOException {
+    for (String layout : VALID) {
+      CommonMaze expected = loadStream(Path.of(layout));
+      CommonMaze mapped = new MazeConfigure().loadMaze(Path.of(layout));
+      Assert.assertNotNull(layout, mapped);
+      Assert.assertEquals(layout, MazeDescription.describe(expected), MazeDescription.describe(mapped));
+    }
+  }
+
+  @Test
+  public void invalidMazes() throws IOException {
+    Assert.assertNull(new MazeConfigure().loadMaze(Path.of("src/tool/tests/maps/invalid/extraLine")));
+    Assert.assertNull(new MazeConfigure().loadMaze(Path.of("src/tool/tests/maps/invalid/missingLine")));
+    Assert.assertNull(loadMapped("2 3\n.SS\n.T.\n"));
+    Assert.assertNull(loadMapped("2 3\n.S.\n.TT\n"));
+    Assert.assertNull(loadMapped("2 3\n.S.\nST.\n"));
+    Assert.assertNull(loadMapped("2 3\n.S.\n.TQ\n"));
+    Assert.assertNull(loadMapped("2 3\n.S.\n.T\n"));
+    Assert.assertNull(loadMapped("2 3\n.S.\n"));
+    Assert.assertNull(loadMapped("2\n.S.\n.T.\n"));
+    Assert.assertNull(loadMapped(""));
+    // dimensions that are not positive or do not fit the file
+    Assert.assertNull(loadMapped("-1 3\n.S.\n"));
+    Assert.assertNull(loadMapped("0 0\n"));
+    Assert.assertNull(loadMapped("0 3\n"));
+    Assert.assertNull(loadMapped("3 -1\n"));
+    Assert.assertNull(loadMapped("2000000000 2000000000\n.S.\n.T.\n"));
+  }
+
+  @Test
+  public void duplicatesInTheLastRowAreInvalidInBothLoaders() throws IOException {
+    Path path = Files.createTempFile("maze", null);
+    try {
+      for (String content : new String[] {"2 3\n.S.\n.TT\n", "2 3\n.S.\nST.\n"}) {
+        Files.writeString(path, content);
+        Assert.assertNull(content, loadStream(path));
+        Assert.assertNull(content, new MazeConfigure().loadMaze(path));
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void lineBreaksAndTrailingData() throws IOException {
+    CommonMaze expected = loadMapped("2 3\n.S.\n.TG\n");
+    Assert.assertNotNull(expected);
+    Assert.assertEquals(MazeDescription.describe(expected), MazeDescription.describe(loadMapped("2 3\r\n.S.\r\n.TG\r\n")));
+    Assert.assertEquals(MazeDescription.describe(expected), MazeDescription.describe(loadMapped("2 3\n.S.\n.TG")));
+    // a replay log may follow the maze
+    Assert.assertEquals(MazeDescription.describe(expected), MazeDescription.describe(loadMapped("2 3\n.S.\n.TG\nORD: 1 OBJ: PACMAN 0 ON: (1,2)\n")));
+    // another row of the maze width may not
+    Assert.assertNull(loadMapped("2 3\n.S.\n.TG\n...\n"));
+  }
+}
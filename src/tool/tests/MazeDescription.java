@@ -0,0 +1,38 @@
+package src.tool.tests;
+
+import src.game.Maze;
+import src.tool.common.CommonMaze;
+import src.tool.common.CommonMazeObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes a loaded maze so that mazes loaded in different ways can be compared.
+ */
+final class MazeDescription {
+
+  private MazeDescription() {
+  }
+
+  // the walkable cells followed by the cells of the objects in the order of the lists of the maze
+  static List<Integer> describe(CommonMaze commonMaze) {
+    Maze maze = (Maze) commonMaze;
+    List<Integer> description = new ArrayList<>();
+    for (int cell = 0; cell < maze.numCells(); cell++) {
+      if (maze.isWalkable(cell)) {
+        description.add(cell);
+      }
+    }
+    List<CommonMazeObject> objects = new ArrayList<>();
+    objects.add(maze.getPacman());
+    objects.add(maze.getTarget());
+    objects.addAll(maze.getGhosts());
+    objects.addAll(maze.getKeys());
+    objects.addAll(maze.getBoosts());
+    for (CommonMazeObject object : objects) {
+      description.add(-maze.indexOf(object.getField()));
+    }
+    return description;
+  }
+}
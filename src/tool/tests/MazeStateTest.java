@@ -0,0 +1,84 @@
+package src.tool.tests;
+
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.MazeState;
+import src.game.PathField;
+import src.tool.common.CommonMazeObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MazeStateTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(3, 4);
+    cfg.processLine("SG..");
+    cfg.processLine(".XX.");
+    cfg.processLine("GK.T");
+    cfg.stopReading();
+    this.maze = (Maze) cfg.createMaze();
+  }
+
+  @Test
+  public void forksLeaveTheOriginalUntouched() {
+    Assert.assertNotNull(this.maze);
+    MazeState initial = MazeState.of(this.maze);
+    CommonMazeObject ghost = this.maze.getGhosts().get(0);
+    CommonMazeObject key = this.maze.getKeys().get(0);
+    int ghostCell = initial.cellOf(ghost);
+    int free = this.maze.indexOf(1, 4);
+    MazeState moved = initial.withCell(ghost, free).without(key).withCounters(2, 5, false);
+    Assert.assertEquals(ghostCell, initial.cellOf(ghost));
+    Assert.assertEquals(3, initial.getLives());
+    Assert.assertEquals(free, moved.cellOf(ghost));
+    Assert.assertEquals(MazeState.ABSENT, moved.cellOf(key));
+    Assert.assertEquals(2, moved.getLives());
+    Assert.assertSame(initial, initial.withCell(ghost, ghostCell));
+    Assert.assertEquals(initial, MazeState.of(this.maze));
+    Assert.assertNotEquals(initial, moved);
+    Assert.assertThrows(IllegalArgumentException.class, () -> initial.withCell(ghost, this.maze.indexOf(2, 2)));
+  }
+
+  @Test
+  public void appliesToTheMazeAndBack() {
+    Assert.assertNotNull(this.maze);
+    MazeState initial = MazeState.of(this.maze);
+    CommonMazeObject ghost = this.maze.getGhosts().get(0);
+    CommonMazeObject key = this.maze.getKeys().get(0);
+    PathField keyField = (PathField) key.getField();
+    int free = this.maze.indexOf(1, 4);
+    MazeState moved = initial.withCell(ghost, free).without(key).withCounters(2, 5, false);
+    moved.applyTo();
+    Assert.assertSame(this.maze.fieldAt(free), ghost.getField());
+    Assert.assertTrue(this.maze.getKeys().isEmpty());
+    Assert.assertNull(keyField.getKey());
+    Assert.assertEquals(2, this.maze.getPacman().getLives());
+    Assert.assertTrue(this.maze.getPacman().hasBoost());
+    Assert.assertEquals(moved, MazeState.of(this.maze));
+    initial.applyTo();
+    Assert.assertEquals(initial, MazeState.of(this.maze));
+    Assert.assertSame(key, keyField.getKey());
+  }
+
+  @Test
+  public void pacmanCanBeTakenOut() {
+    Assert.assertNotNull(this.maze);
+    MazeState initial = MazeState.of(this.maze);
+    CommonMazeObject pacman = this.maze.getPacman();
+    PathField pacmanField = (PathField) pacman.getField();
+    MazeState withoutPacman = initial.without(pacman);
+    withoutPacman.applyTo();
+    Assert.assertNull(pacmanField.getPacman());
+    MazeState captured = MazeState.of(this.maze);
+    Assert.assertEquals(MazeState.ABSENT, captured.cellOf(pacman));
+    Assert.assertEquals(withoutPacman, captured);
+    initial.applyTo();
+    Assert.assertEquals(initial, MazeState.of(this.maze));
+    Assert.assertSame(pacman, pacmanField.getPacman());
+  }
+}
@@ -0,0 +1,84 @@
+package src.tool.tests;
+
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PacmanObject;
+import src.game.PathQueryBatch;
+import src.tool.common.CommonField;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class PathQueryBatchTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    try (InputStream inputStream = Files.newInputStream(Path.of("src/tool/tests/maps/maze/hard"))) {
+      this.maze = (Maze) new MazeConfigure().loadMaze(inputStream);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  @Test
+  public void distanceMatchesMovesToTarget() {
+    Assert.assertNotNull(this.maze);
+    PacmanObject pacman = this.maze.getPacman();
+    CommonField destinationField = this.maze.getTarget().getField();
+    int[] distances = new PathQueryBatch(this.maze).distances(
+      new CommonField[]{pacman.getField()}, new CommonField[]{destinationField});
+    pacman.setGoToField(destinationField);
+    int moves = 0;
+    while (pacman.getField() != destinationField && moves < 200) {
+      pacman.move();
+      moves++;
+    }
+    Assert.assertEquals(moves, distances[0]);
+  }
+
+  @Test
+  public void parallelMatchesSingleWorker() {
+    Assert.assertNotNull(this.maze);
+    Random random = new Random(42);
+    int[] starts = new int[2000];
+    int[] destinations = new int[2000];
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = random.nextInt(this.maze.numCells());
+      destinations[i] = random.nextInt(this.maze.numCells());
+    }
+    ForkJoinPool single = new ForkJoinPool(1);
+    ForkJoinPool parallel = new ForkJoinPool(4);
+    try {
+      int[] expected = new PathQueryBatch(this.maze, single).distances(starts, destinations);
+      int[] actual = new PathQueryBatch(this.maze, parallel).distances(starts, destinations);
+      Assert.assertArrayEquals(expected, actual);
+    } finally {
+      single.shutdown();
+      parallel.shutdown();
+    }
+  }
+
+  @Test
+  public void unreachableDestination() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(3, 5);
+    cfg.processLine("S.X..");
+    cfg.processLine("..X..");
+    cfg.processLine("..X..");
+    cfg.stopReading();
+    Maze closedMaze = (Maze) cfg.createMaze();
+    CommonField start = closedMaze.getPacman().getField();
+    int[] distances = new PathQueryBatch(closedMaze).distances(
+      new CommonField[]{start, start}, new CommonField[]{closedMaze.getField(2, 5), closedMaze.getField(3, 2)});
+    Assert.assertArrayEquals(new int[]{PathQueryBatch.UNREACHABLE, 3}, distances);
+  }
+}
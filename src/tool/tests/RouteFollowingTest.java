@@ -0,0 +1,92 @@
+package src.tool.tests;
+
+import src.game.Game;
+import src.game.Maze;
+import src.game.PacmanObject;
+import src.game.PathFinder;
+import src.game.resources.PlannerType;
+import src.game.resources.SearchMode;
+import src.tool.common.CommonField;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+
+public class RouteFollowingTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    Game game = new Game(300, true);
+    this.maze = (Maze) game.createMazeFromFile(Path.of("src/tool/tests/maps/maze/hard"));
+  }
+
+  // checks that every cell of the route is a walkable neighbor of the previous one
+  private void assertConnected(int start, int[] route, int destination) {
+    int previous = start;
+    for (int cell : route) {
+      Assert.assertTrue(this.maze.isWalkable(cell));
+      int delta = Math.abs(cell - previous);
+      Assert.assertTrue(delta == 1 || delta == this.maze.numCols());
+      previous = cell;
+    }
+    Assert.assertEquals(destination, previous);
+  }
+
+  @Test
+  public void sameRouteLengthInAllModes() {
+    Assert.assertNotNull(this.maze);
+    this.maze.buildDistanceOracle(5000);
+    int start = this.maze.indexOf(this.maze.getPacman().getField());
+    int destination = this.maze.indexOf(this.maze.getTarget().getField());
+    PathFinder aStar = new PathFinder(this.maze);
+    int[] expected = aStar.findRoute(this.maze.getPacman().getField(), this.maze.getTarget().getField());
+    Assert.assertNotNull(expected);
+    assertConnected(start, expected, destination);
+    for (SearchMode mode : SearchMode.values()) {
+      PathFinder pathFinder = new PathFinder(this.maze);
+      pathFinder.setMode(mode);
+      int[] route = pathFinder.findRoute(this.maze.getPacman().getField(), this.maze.getTarget().getField());
+      Assert.assertNotNull(mode.toString(), route);
+      Assert.assertEquals(mode.toString(), expected.length, route.length);
+      assertConnected(start, route, destination);
+    }
+  }
+
+  @Test
+  public void pacmanFollowsStoredRoute() {
+    Assert.assertNotNull(this.maze);
+    PacmanObject pacman = this.maze.getPacman();
+    CommonField destination = this.maze.getTarget().getField();
+    pacman.setPlanner(PlannerType.A_STAR);
+    pacman.setGoToField(destination);
+    pacman.move();
+    int remaining = pacman.getRemainingRouteLength();
+    Assert.assertTrue(remaining > 0);
+    while (pacman.getField() != destination) {
+      Assert.assertTrue(pacman.move());
+      Assert.assertEquals(--remaining, pacman.getRemainingRouteLength());
+    }
+  }
+
+  @Test
+  public void replansWhenGoToFieldChanges() {
+    Assert.assertNotNull(this.maze);
+    PacmanObject pacman = this.maze.getPacman();
+    CommonField start = pacman.getField();
+    pacman.setPlanner(PlannerType.A_STAR);
+    pacman.setGoToField(this.maze.getTarget().getField());
+    pacman.move();
+    pacman.move();
+    // going back to the start takes as many moves as were made
+    pacman.setGoToField(start);
+    pacman.move();
+    Assert.assertEquals(2, pacman.getRemainingRouteLength());
+    pacman.move();
+    Assert.assertEquals(start, pacman.getField());
+    pacman.move();
+    Assert.assertEquals(CommonField.Direction.STOP, pacman.getDirection());
+  }
+}
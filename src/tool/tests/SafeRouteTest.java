@@ -0,0 +1,69 @@
+package src.tool.tests;
+
+import src.game.GhostObject;
+import src.game.MazeConfigure;
+import src.game.PacmanObject;
+import src.game.resources.PlannerType;
+import src.tool.common.CommonField;
+import src.tool.common.CommonMaze;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SafeRouteTest {
+
+  private CommonMaze maze;
+
+  // two paths of the same length lead around the walls, the ghost waits on the upper one
+  @Before
+  public void setUp() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(4, 6);
+    cfg.processLine("S..G..");
+    cfg.processLine(".XXXX.");
+    cfg.processLine(".XXXX.");
+    cfg.processLine("......");
+    cfg.stopReading();
+    maze = cfg.createMaze();
+  }
+
+  @Test
+  public void avoidsPathNearGhost() {
+    Assert.assertNotNull("Maze neni null", maze);
+    PacmanObject pacman = maze.getPacman();
+    pacman.setPlanner(PlannerType.SAFE_ROUTE);
+    pacman.setGoToField(maze.getField(4, 6));
+    pacman.move();
+    Assert.assertEquals(CommonField.Direction.DOWN, pacman.getDirection());
+  }
+
+  @Test
+  public void followsGhostThatMoved() {
+    Assert.assertNotNull("Maze neni null", maze);
+    PacmanObject pacman = maze.getPacman();
+    GhostObject ghost = (GhostObject) maze.getGhosts().get(0);
+    pacman.setPlanner(PlannerType.SAFE_ROUTE);
+    CommonField destinationField = maze.getField(4, 6);
+    pacman.setGoToField(destinationField);
+    pacman.move();
+    pacman.move();
+    // the ghost walks around to the lower path, Pacman turns back to the upper one
+    CommonField.Direction[] ghostMoves = {
+      CommonField.Direction.RIGHT, CommonField.Direction.RIGHT, CommonField.Direction.DOWN,
+      CommonField.Direction.DOWN, CommonField.Direction.DOWN, CommonField.Direction.LEFT,
+      CommonField.Direction.LEFT, CommonField.Direction.LEFT
+    };
+    for (CommonField.Direction direction : ghostMoves) {
+      Assert.assertTrue(ghost.move(direction));
+    }
+    pacman.move();
+    Assert.assertEquals(CommonField.Direction.UP, pacman.getDirection());
+    int moves = 0;
+    while (pacman.getField() != destinationField && moves < 20) {
+      pacman.move();
+      moves++;
+    }
+    Assert.assertEquals(destinationField, pacman.getField());
+    Assert.assertFalse(pacman.isCaughtByGhost());
+  }
+}
@@ -0,0 +1,77 @@
+package src.tool.tests;
+
+import src.game.GhostObject;
+import src.game.Maze;
+import src.game.MazeConfigure;
+import src.game.PacmanObject;
+import src.game.resources.GhostMode;
+import src.tool.common.CommonField;
+import src.tool.common.CommonMazeObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class SpaceTimePlannerTest {
+
+  private Maze maze;
+
+  @Before
+  public void setUp() {
+    MazeConfigure cfg = new MazeConfigure();
+    cfg.startReading(5, 5);
+    cfg.processLine("S....");
+    cfg.processLine(".XXX.");
+    cfg.processLine(".X...");
+    cfg.processLine(".X.X.");
+    cfg.processLine("GG.GG");
+    cfg.stopReading();
+    maze = (Maze) cfg.createMaze();
+    for (CommonMazeObject ghost : maze.getGhosts()) {
+      ((GhostObject) ghost).setMode(GhostMode.COORDINATED);
+    }
+  }
+
+  // moves all ghosts once and checks that no two of them ended up in the same field
+  private void moveGhostsApart() {
+    List<CommonMazeObject> ghosts = maze.getGhosts();
+    for (CommonMazeObject ghost : ghosts) {
+      ghost.move();
+    }
+    Set<CommonField> fields = new HashSet<>();
+    for (CommonMazeObject ghost : ghosts) {
+      Assert.assertTrue(fields.add(ghost.getField()));
+    }
+  }
+
+  @Test
+  public void ghostsCatchPacmanWithoutSharingFields() {
+    Assert.assertNotNull("Maze neni null", maze);
+    PacmanObject pacman = maze.getPacman();
+    // a slow machine must not run out of time and make the ghosts step aside
+    maze.getSpaceTimePlanner().setTimeBudget(TimeUnit.SECONDS.toNanos(1));
+    int ticks = 0;
+    while (!pacman.isCaughtByGhost() && ticks < 20) {
+      moveGhostsApart();
+      ticks++;
+    }
+    Assert.assertTrue(pacman.isCaughtByGhost());
+    // the ghost in the corner is 4 moves away, the ghost behind it has to wait for it
+    Assert.assertEquals(4, ticks);
+    Assert.assertEquals(4, maze.getSpaceTimePlanner().getPlannedAgents());
+  }
+
+  @Test
+  public void ghostsStayApartWithoutTime() {
+    Assert.assertNotNull("Maze neni null", maze);
+    maze.getSpaceTimePlanner().setTimeBudget(0);
+    for (int i = 0; i < 10; i++) {
+      moveGhostsApart();
+      Assert.assertEquals(0, maze.getSpaceTimePlanner().getPlannedAgents());
+    }
+  }
+}